@@ -0,0 +1,221 @@
+package com.br.contas.apagar.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+// Um cliente da carga: executa operações sorteadas conforme o mix, uma de cada vez, até o fim da medição.
+// Só as operações iniciadas depois do aquecimento entram nos histogramas (latência em microssegundos)
+class ClienteCarga implements Runnable {
+    private static final DateTimeFormatter DATA_TOTAL = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String[] SITUACOES_FILTRO = {"PENDENTE", "PAGA", "VENCIDA"};
+    private static final String[] SITUACOES_ALTERACAO = {"Paga", "Pendente", "Vencida"};
+    private static final Duration TEMPO_MAXIMO = Duration.ofMinutes(5);
+    private static final long ESPERA_IMPORTACAO_MS = 200;
+    private static final int TAMANHO_PAGINA = 20;
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String autorizacao;
+    private final Random random;
+    private final Operacao[] sorteio;
+    private final long[] ids;
+    private final long paginasPorMes;
+    private final int linhasImportacao;
+    private final long inicioMedicao;
+    private final long fimMedicao;
+    private final LocalDate mesAtual = LocalDate.now().withDayOfMonth(1);
+
+    private final Map<Operacao, Histogram> latencias = new EnumMap<>(Operacao.class);
+    private final Map<Operacao, Long> erros = new EnumMap<>(Operacao.class);
+    private long sequencia;
+
+    ClienteCarga(HttpClient http, ObjectMapper objectMapper, String baseUrl, String autorizacao, long semente,
+                 Map<Operacao, Integer> mix, long[] ids, long contas, int linhasImportacao,
+                 long inicioMedicao, long fimMedicao) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.autorizacao = autorizacao;
+        this.random = new Random(semente);
+        this.sorteio = mix.entrySet().stream()
+                .flatMap(peso -> Collections.nCopies(peso.getValue(), peso.getKey()).stream())
+                .toArray(Operacao[]::new);
+        this.ids = ids;
+        this.paginasPorMes = Math.max(1, contas / (MassaDados.MESES_ATRAS + MassaDados.MESES_A_FRENTE + 1) / TAMANHO_PAGINA);
+        this.linhasImportacao = linhasImportacao;
+        this.inicioMedicao = inicioMedicao;
+        this.fimMedicao = fimMedicao;
+        for (Operacao operacao : mix.keySet()) {
+            latencias.put(operacao, new Histogram(3));
+            erros.put(operacao, 0L);
+        }
+    }
+
+    @Override
+    public void run() {
+        long agora;
+        while ((agora = System.nanoTime()) < fimMedicao && !Thread.currentThread().isInterrupted()) {
+            Operacao operacao = sorteio[random.nextInt(sorteio.length)];
+            boolean sucesso;
+            try {
+                sucesso = executar(operacao);
+            } catch (IOException e) {
+                sucesso = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (agora >= inicioMedicao) {
+                latencias.get(operacao).recordValue(Math.max(1, (System.nanoTime() - agora) / 1000));
+                if (!sucesso) {
+                    erros.merge(operacao, 1L, Long::sum);
+                }
+            }
+        }
+    }
+
+    Map<Operacao, Histogram> getLatencias() {
+        return latencias;
+    }
+
+    Map<Operacao, Long> getErros() {
+        return erros;
+    }
+
+    private boolean executar(Operacao operacao) throws IOException, InterruptedException {
+        return switch (operacao) {
+            case LISTAGEM -> listar();
+            case PAGINACAO_PROFUNDA -> paginarProfundo();
+            case TOTAL -> totalizar();
+            case SITUACAO -> alterarSituacao();
+            case IMPORTACAO -> importar();
+        };
+    }
+
+    // Um mês de vencimentos, às vezes com descrição e situação, nas primeiras páginas
+    private boolean listar() throws IOException, InterruptedException {
+        LocalDate mes = sortearMes();
+        StringBuilder url = new StringBuilder("/api/contas?startDate=").append(mes)
+                .append("&endDate=").append(mes.plusMonths(1).minusDays(1))
+                .append("&page=").append(random.nextInt(3))
+                .append("&size=").append(TAMANHO_PAGINA);
+        if (random.nextBoolean()) {
+            String categoria = MassaDados.CATEGORIAS[random.nextInt(MassaDados.CATEGORIAS.length)];
+            url.append("&descricao=").append(URLEncoder.encode(categoria, StandardCharsets.UTF_8));
+        }
+        if (random.nextInt(10) < 3) {
+            url.append("&situacao=").append(SITUACOES_FILTRO[random.nextInt(SITUACOES_FILTRO.length)]);
+        }
+        return sucesso(enviar(requisicao(url.toString()).GET()));
+    }
+
+    // Páginas da segunda metade de um mês inteiro (OFFSET alto)
+    private boolean paginarProfundo() throws IOException, InterruptedException {
+        LocalDate mes = sortearMes();
+        long pagina = paginasPorMes / 2 + (long) (random.nextDouble() * (paginasPorMes - paginasPorMes / 2));
+        String url = "/api/contas?startDate=" + mes + "&endDate=" + mes.plusMonths(1).minusDays(1)
+                + "&page=" + pagina + "&size=" + TAMANHO_PAGINA;
+        return sucesso(enviar(requisicao(url).GET()));
+    }
+
+    // Total pago em um mês ou trimestre já vencido
+    private boolean totalizar() throws IOException, InterruptedException {
+        LocalDate inicio = mesAtual.minusMonths(1 + random.nextInt(MassaDados.MESES_ATRAS));
+        LocalDate fim = inicio.plusMonths(random.nextBoolean() ? 1 : 3).minusDays(1);
+        String url = "/api/contas/total?startDate=" + inicio.format(DATA_TOTAL) + "&endDate=" + fim.format(DATA_TOTAL);
+        return sucesso(enviar(requisicao(url).GET()));
+    }
+
+    private boolean alterarSituacao() throws IOException, InterruptedException {
+        if (ids.length == 0) {
+            return false;
+        }
+        long id = ids[random.nextInt(ids.length)];
+        String situacao = SITUACOES_ALTERACAO[random.nextInt(SITUACOES_ALTERACAO.length)];
+        return sucesso(enviar(requisicao("/api/contas/" + id + "/situacao")
+                .header("Content-Type", "text/plain; charset=UTF-8")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(situacao))));
+    }
+
+    // Envia um CSV e acompanha a importação até terminar; a latência é a da importação inteira
+    private boolean importar() throws IOException, InterruptedException {
+        String fronteira = "carga" + Long.toHexString(random.nextLong());
+        String corpo = "--" + fronteira + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"carga.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n"
+                + gerarCsv()
+                + "\r\n--" + fronteira + "--\r\n";
+        HttpResponse<String> resposta = enviar(requisicao("/api/contas/importar")
+                .header("Content-Type", "multipart/form-data; boundary=" + fronteira)
+                .POST(HttpRequest.BodyPublishers.ofString(corpo)));
+        if (resposta.statusCode() != 202) {
+            return false;
+        }
+        long id = objectMapper.readTree(resposta.body()).path("id").asLong();
+        while (true) {
+            Thread.sleep(ESPERA_IMPORTACAO_MS);
+            HttpResponse<String> situacao = enviar(requisicao("/api/contas/importar/" + id).GET());
+            if (!sucesso(situacao)) {
+                return false;
+            }
+            JsonNode importacao = objectMapper.readTree(situacao.body());
+            switch (importacao.path("status").asText()) {
+                case "CONCLUIDA":
+                    return true;
+                case "FALHOU":
+                    return false;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private String gerarCsv() {
+        StringBuilder csv = new StringBuilder(linhasImportacao * 64);
+        for (int i = 0; i < linhasImportacao; i++) {
+            LocalDate vencimento = mesAtual.plusMonths(1 + random.nextInt(MassaDados.MESES_A_FRENTE))
+                    .plusDays(random.nextInt(28));
+            csv.append(vencimento).append(",,")
+                    .append(15 + random.nextInt(5000)).append('.').append(random.nextInt(10)).append("0,")
+                    .append(MassaDados.CATEGORIAS[random.nextInt(MassaDados.CATEGORIAS.length)])
+                    .append(" - Carga NF ").append(++sequencia)
+                    .append(",Pendente\n");
+        }
+        return csv.toString();
+    }
+
+    private LocalDate sortearMes() {
+        return mesAtual.plusMonths(random.nextInt(MassaDados.MESES_ATRAS + MassaDados.MESES_A_FRENTE + 1) - MassaDados.MESES_ATRAS);
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + caminho))
+                .timeout(TEMPO_MAXIMO)
+                .header("Authorization", autorizacao);
+    }
+
+    private HttpResponse<String> enviar(HttpRequest.Builder requisicao) throws IOException, InterruptedException {
+        return http.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean sucesso(HttpResponse<?> resposta) {
+        return resposta.statusCode() / 100 == 2;
+    }
+}
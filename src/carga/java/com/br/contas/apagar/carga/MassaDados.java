@@ -0,0 +1,163 @@
+package com.br.contas.apagar.carga;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+// Massa sintética de contas, gerada no próprio PostgreSQL. A mesma semente produz os mesmos dados:
+// - vencimentos de MESES_ATRAS meses atrás até MESES_A_FRENTE meses à frente: 85% até o mês corrente, crescendo
+//   em direção aos meses recentes, e 15% nos próximos meses, concentradas nos primeiros; 70% delas nos dias
+//   usuais de vencimento (5, 10, 15, 20, 25 e 28);
+// - descrições "<categoria> - Fornecedor NNNN NF <número>", com poucas categorias e fornecedores concentrando
+//   a maior parte das contas;
+// - contas vencidas em sua maioria pagas, parte vencida ou ainda pendente; contas a vencer pendentes.
+class MassaDados {
+    static final int MESES_ATRAS = 24;
+    static final int MESES_A_FRENTE = 12;
+    static final String[] CATEGORIAS = {
+            "Fornecedor de matéria-prima", "Aluguel", "Energia elétrica", "Folha de pagamento", "Frete",
+            "Impostos", "Internet e telefonia", "Água e esgoto", "Manutenção predial", "Licenças de software",
+            "Material de escritório", "Combustível", "Seguros", "Contabilidade", "Marketing"
+    };
+
+    private static final int LINHAS_POR_LOTE = 100_000;
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String CRIAR_PARTICOES_SQL =
+            "SELECT count(*) FILTER (WHERE contas_criar_particao((date_trunc('month', current_date) + make_interval(months => m))::date)) "
+            + "FROM generate_series(?, ?) m";
+
+    private static final String INSERIR_SQL = """
+            INSERT INTO contas (id, data_vencimento, data_pagamento, valor, descricao, situacao)
+            SELECT ? + g, vencimento,
+                   CASE WHEN situacao = 2 THEN vencimento + (floor(r_pagamento * 16)::int - 10) END,
+                   round((15 + power(r_valor, 3) * 19985)::numeric, 2),
+                   (?::text[])[1 + floor(power(r_categoria, 2) * ?)::int]
+                       || ' - Fornecedor ' || lpad(floor(power(r_fornecedor, 3) * 2000)::int::text, 4, '0')
+                       || ' NF ' || (100000 + g),
+                   situacao
+            FROM (
+                SELECT g, vencimento, r_pagamento, r_valor, r_categoria, r_fornecedor,
+                       CASE WHEN vencimento >= current_date THEN CASE WHEN r_situacao < 0.97 THEN 1 ELSE 4 END
+                            WHEN r_situacao < 0.88 THEN 2
+                            WHEN r_situacao < 0.95 THEN 3
+                            WHEN r_situacao < 0.97 THEN 1
+                            ELSE 4 END AS situacao
+                FROM (
+                    SELECT g, random() AS r_situacao, random() AS r_pagamento, random() AS r_valor,
+                           random() AS r_categoria, random() AS r_fornecedor,
+                           (date_trunc('month', current_date)
+                               + make_interval(months => CASE WHEN random() < 0.85
+                                                              THEN floor(sqrt(random()) * (? + 1))::int - ?
+                                                              ELSE least(?, 1 + floor(-ln(1 - random()) * 2)::int) END)
+                               + make_interval(days => CASE WHEN random() < 0.7
+                                                            THEN (ARRAY[4, 9, 14, 19, 24, 27])[1 + floor(random() * 6)::int]
+                                                            ELSE floor(random() * 28)::int END))::date AS vencimento
+                    FROM generate_series(?, ?) g
+                ) sorteio
+            ) contas_sorteadas
+            """;
+
+    private MassaDados() {
+    }
+
+    // Completa a tabela até "quantidade" contas; devolve quantas foram geradas
+    static long popular(DataSource dataSource, long quantidade, double semente) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            long existentes = contar(connection);
+            long faltantes = quantidade - existentes;
+            if (faltantes <= 0) {
+                System.out.printf("Massa de dados: %,d contas já existentes, nada a gerar%n", existentes);
+                return 0;
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(CRIAR_PARTICOES_SQL)) {
+                statement.setInt(1, -MESES_ATRAS);
+                statement.setInt(2, MESES_A_FRENTE);
+                statement.executeQuery().close();
+            }
+            try (PreparedStatement statement = connection.prepareStatement("SELECT setseed(?)")) {
+                statement.setDouble(1, semente);
+                statement.executeQuery().close();
+            }
+
+            long primeiroId = reservarIds(connection, faltantes);
+            long inicio = System.nanoTime();
+            try (PreparedStatement statement = connection.prepareStatement(INSERIR_SQL)) {
+                for (long lote = 0; lote < faltantes; lote += LINHAS_POR_LOTE) {
+                    long ultimo = Math.min(lote + LINHAS_POR_LOTE, faltantes) - 1;
+                    statement.setLong(1, primeiroId);
+                    statement.setArray(2, connection.createArrayOf("text", CATEGORIAS));
+                    statement.setInt(3, CATEGORIAS.length);
+                    statement.setInt(4, MESES_ATRAS);
+                    statement.setInt(5, MESES_ATRAS);
+                    statement.setInt(6, MESES_A_FRENTE);
+                    statement.setLong(7, lote);
+                    statement.setLong(8, ultimo);
+                    statement.executeUpdate();
+                    System.out.printf("Massa de dados: %,d de %,d contas%n", ultimo + 1, faltantes);
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE contas");
+            }
+            System.out.printf("Massa de dados: %,d contas geradas em %d s%n", faltantes,
+                    (System.nanoTime() - inicio) / 1_000_000_000L);
+            return faltantes;
+        }
+    }
+
+    // Amostra repetível de ids existentes, usada como alvo das alterações de situação
+    static long[] amostrarIds(DataSource dataSource, int quantidade) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            double percentual = Math.min(100.0, quantidade * 200.0 / Math.max(1, contar(connection)));
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id FROM contas TABLESAMPLE BERNOULLI (?) REPEATABLE (42) LIMIT ?")) {
+                statement.setDouble(1, percentual);
+                statement.setInt(2, quantidade);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    long[] ids = new long[quantidade];
+                    int total = 0;
+                    while (resultSet.next()) {
+                        ids[total++] = resultSet.getLong(1);
+                    }
+                    return Arrays.copyOf(ids, total);
+                }
+            }
+        }
+    }
+
+    private static long contar(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM contas")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    // Reserva um intervalo contínuo de ids em blocos, como o otimizador pooled do Hibernate e o ContaCopyImporter
+    // (cada nextval devolve o topo de um bloco de ID_ALLOCATION_SIZE ids)
+    private static long reservarIds(Connection connection, long quantidade) throws SQLException {
+        long blocos = (quantidade + ID_ALLOCATION_SIZE - 1) / ID_ALLOCATION_SIZE;
+        long topo;
+        try (Statement statement = connection.createStatement()) {
+            // Numa sequence nova o primeiro nextval é 1; esse bloco teria ids negativos e é descartado
+            do {
+                try (ResultSet resultSet = statement.executeQuery("SELECT nextval('contas_id_seq')")) {
+                    resultSet.next();
+                    topo = resultSet.getLong(1);
+                }
+            } while (topo < ID_ALLOCATION_SIZE);
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT setval('contas_id_seq', ?)")) {
+            statement.setLong(1, topo + (blocos - 1) * ID_ALLOCATION_SIZE);
+            statement.executeQuery().close();
+        }
+        return topo - ID_ALLOCATION_SIZE + 1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.br.contas.apagar.carga;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Operações da carga mista; a chave é usada em --mix e no relatório
+enum Operacao {
+    LISTAGEM("listagem"),
+    PAGINACAO_PROFUNDA("paginacao"),
+    TOTAL("total"),
+    SITUACAO("situacao"),
+    IMPORTACAO("importacao");
+
+    private final String chave;
+
+    Operacao(String chave) {
+        this.chave = chave;
+    }
+
+    String getChave() {
+        return chave;
+    }
+
+    // "listagem=40,paginacao=15,..." -> pesos por operação (operações ausentes não são executadas)
+    static Map<Operacao, Integer> parseMix(String mix) {
+        Map<Operacao, Integer> pesos = new EnumMap<>(Operacao.class);
+        for (String item : mix.split(",")) {
+            String[] partes = item.split("=");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Item inválido no mix: " + item + ". Use operacao=peso.");
+            }
+            int peso = Integer.parseInt(partes[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("Peso negativo no mix: " + item);
+            }
+            if (peso > 0) {
+                pesos.put(of(partes[0].trim()), peso);
+            }
+        }
+        if (pesos.isEmpty()) {
+            throw new IllegalArgumentException("O mix precisa de ao menos uma operação com peso positivo.");
+        }
+        return pesos;
+    }
+
+    static Operacao of(String chave) {
+        for (Operacao operacao : values()) {
+            if (operacao.chave.equals(chave.toLowerCase(Locale.ROOT))) {
+                return operacao;
+            }
+        }
+        throw new IllegalArgumentException("Operação desconhecida: " + chave);
+    }
+}
@@ -0,0 +1,79 @@
+package com.br.contas.apagar.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Soma os histogramas dos clientes e gera o relatório: vazão e p50/p99/p999 por operação e no total
+class ResultadoCarga {
+    private final Map<Operacao, Histogram> latencias = new EnumMap<>(Operacao.class);
+    private final Map<Operacao, Long> erros = new EnumMap<>(Operacao.class);
+    private final Histogram total = new Histogram(3);
+    private long errosTotal;
+
+    void somar(ClienteCarga cliente) {
+        cliente.getLatencias().forEach((operacao, histograma) -> {
+            latencias.computeIfAbsent(operacao, o -> new Histogram(3)).add(histograma);
+            total.add(histograma);
+        });
+        cliente.getErros().forEach((operacao, quantidade) -> {
+            erros.merge(operacao, quantidade, Long::sum);
+            errosTotal += quantidade;
+        });
+    }
+
+    // Relatório em JSON (para comparar versões) e a mesma tabela no console
+    void gravar(Path arquivo, Map<String, Object> parametros, Map<String, Object> ambiente, double segundos,
+                ObjectMapper objectMapper) throws IOException {
+        List<Map<String, Object>> operacoes = new ArrayList<>();
+        System.out.printf("%n%-12s %12s %8s %10s %10s %10s %10s %10s%n",
+                "operacao", "requisicoes", "erros", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        latencias.forEach((operacao, histograma) ->
+                operacoes.add(resumo(operacao.getChave(), histograma, erros.getOrDefault(operacao, 0L), segundos)));
+        Map<String, Object> resumoTotal = resumo("total", total, errosTotal, segundos);
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("parametros", parametros);
+        relatorio.put("ambiente", ambiente);
+        relatorio.put("operacoes", operacoes);
+        relatorio.put("total", resumoTotal);
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(arquivo.toFile(), relatorio);
+        System.out.printf("%nResultado gravado em %s%n", arquivo.toAbsolutePath());
+    }
+
+    private static Map<String, Object> resumo(String nome, Histogram histograma, long erros, double segundos) {
+        Map<String, Object> latencia = new LinkedHashMap<>();
+        latencia.put("p50", ms(histograma.getValueAtPercentile(50)));
+        latencia.put("p90", ms(histograma.getValueAtPercentile(90)));
+        latencia.put("p99", ms(histograma.getValueAtPercentile(99)));
+        latencia.put("p999", ms(histograma.getValueAtPercentile(99.9)));
+        latencia.put("max", ms(histograma.getMaxValue()));
+        latencia.put("media", ms(Math.round(histograma.getMean())));
+
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("operacao", nome);
+        resumo.put("requisicoes", histograma.getTotalCount());
+        resumo.put("erros", erros);
+        resumo.put("vazao", Math.round(histograma.getTotalCount() / segundos * 100) / 100.0);
+        resumo.put("latenciaMs", latencia);
+
+        System.out.printf("%-12s %12d %8d %10.2f %10.1f %10.1f %10.1f %10.1f%n", nome, histograma.getTotalCount(), erros,
+                resumo.get("vazao"), latencia.get("p50"), latencia.get("p99"), latencia.get("p999"), latencia.get("max"));
+        return resumo;
+    }
+
+    private static double ms(long micros) {
+        return Math.round(micros / 100.0) / 10.0;
+    }
+}
@@ -0,0 +1,178 @@
+package com.br.contas.apagar.carga;
+
+import com.br.contas.apagar.ContasApagarApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import javax.sql.DataSource;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Teste de carga de ponta a ponta: sobe a aplicação contra um PostgreSQL embutido (ou o informado em --jdbc-url),
+// gera a massa de dados e executa a carga mista com --clientes clientes simultâneos.
+// mvn -P carga test-compile exec:exec -Dcarga.args="--contas=10000000 --clientes=32 --duracao=PT5M"
+//
+// Opções: --contas, --clientes, --aquecimento, --duracao, --mix, --linhas-importacao, --semente, --resultado,
+// --jdbc-url/--usuario/--senha e --app.<propriedade>=<valor> (repassada à aplicação, ex.: --app.contas.threads.virtuais.habilitado=true)
+public class TesteCarga {
+    private static final String MIX_PADRAO = "listagem=40,paginacao=15,total=20,situacao=20,importacao=5";
+    private static final int IDS_ALTERACAO = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        SimpleCommandLinePropertySource opcoes = new SimpleCommandLinePropertySource(args);
+        long contas = Long.parseLong(opcao(opcoes, "contas", "1000000"));
+        int clientes = Integer.parseInt(opcao(opcoes, "clientes", "16"));
+        Duration aquecimento = Duration.parse(opcao(opcoes, "aquecimento", "PT30S"));
+        Duration duracao = Duration.parse(opcao(opcoes, "duracao", "PT2M"));
+        String mix = opcao(opcoes, "mix", MIX_PADRAO);
+        Map<Operacao, Integer> pesos = Operacao.parseMix(mix);
+        int linhasImportacao = Integer.parseInt(opcao(opcoes, "linhas-importacao", "1000"));
+        long semente = Long.parseLong(opcao(opcoes, "semente", "42"));
+        Path resultado = Path.of(opcao(opcoes, "resultado", "target/carga-resultado.json"));
+        if (contas < 1 || clientes < 1 || duracao.isNegative() || duracao.isZero() || aquecimento.isNegative() || linhasImportacao < 1) {
+            throw new IllegalArgumentException("--contas, --clientes, --duracao e --linhas-importacao devem ser positivos.");
+        }
+
+        String jdbcUrl = opcoes.getProperty("jdbc-url");
+        String usuario = opcao(opcoes, "usuario", "postgres");
+        String senha = opcao(opcoes, "senha", "");
+        EmbeddedPostgres embutido = null;
+        if (jdbcUrl == null) {
+            embutido = EmbeddedPostgres.builder().setPGStartupWait(Duration.ofMinutes(2)).start();
+            jdbcUrl = embutido.getJdbcUrl("postgres", "postgres");
+        }
+
+        ConfigurableApplicationContext aplicacao = null;
+        try {
+            aplicacao = iniciarAplicacao(opcoes, jdbcUrl, usuario, senha);
+            DataSource dataSource = aplicacao.getBean(DataSource.class);
+            MassaDados.popular(dataSource, contas, (semente % 1000) / 1000.0);
+            long[] ids = MassaDados.amostrarIds(dataSource, IDS_ALTERACAO);
+
+            Map<String, Object> parametros = new LinkedHashMap<>();
+            parametros.put("versao", opcao(opcoes, "versao", "desconhecida"));
+            parametros.put("contas", contas);
+            parametros.put("clientes", clientes);
+            parametros.put("aquecimentoSegundos", aquecimento.toSeconds());
+            parametros.put("duracaoSegundos", duracao.toSeconds());
+            parametros.put("mix", mix);
+            parametros.put("linhasImportacao", linhasImportacao);
+            parametros.put("semente", semente);
+            parametros.put("propriedadesAplicacao", propriedadesAplicacao(opcoes));
+
+            Map<String, Object> ambiente = new LinkedHashMap<>();
+            ambiente.put("data", Instant.now().toString());
+            ambiente.put("java", Runtime.version().toString());
+            ambiente.put("processadores", Runtime.getRuntime().availableProcessors());
+            ambiente.put("banco", embutido != null ? "embutido" : jdbcUrl);
+            ambiente.put("postgres", versaoPostgres(dataSource));
+
+            String baseUrl = "http://localhost:" + aplicacao.getEnvironment().getProperty("local.server.port");
+            String usuarioApi = aplicacao.getEnvironment().getProperty("spring.security.user.name");
+            String senhaApi = aplicacao.getEnvironment().getProperty("spring.security.user.password");
+            String autorizacao = "Basic " + Base64.getEncoder()
+                    .encodeToString((usuarioApi + ":" + senhaApi).getBytes(StandardCharsets.UTF_8));
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            long inicioMedicao = System.nanoTime() + aquecimento.toNanos();
+            long fimMedicao = inicioMedicao + duracao.toNanos();
+
+            System.out.printf("Carga: %d clientes, aquecimento de %d s e medição de %d s (%s)%n",
+                    clientes, aquecimento.toSeconds(), duracao.toSeconds(), mix);
+            List<ClienteCarga> clientesCarga = new ArrayList<>();
+            ExecutorService executor = Executors.newFixedThreadPool(clientes);
+            for (int i = 0; i < clientes; i++) {
+                ClienteCarga cliente = new ClienteCarga(http, objectMapper, baseUrl, autorizacao, semente + i, pesos, ids,
+                        contas, linhasImportacao, inicioMedicao, fimMedicao);
+                clientesCarga.add(cliente);
+                executor.execute(cliente);
+            }
+            executor.shutdown();
+            // Operações iniciadas antes do fim da medição (ex.: uma importação) ainda podem terminar depois dele
+            if (!executor.awaitTermination(aquecimento.plus(duracao).toSeconds() + 600, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+                throw new IllegalStateException("Os clientes da carga não terminaram a tempo.");
+            }
+
+            ResultadoCarga resultadoCarga = new ResultadoCarga();
+            clientesCarga.forEach(resultadoCarga::somar);
+            resultadoCarga.gravar(resultado, parametros, ambiente, duracao.toNanos() / 1e9, objectMapper);
+        } finally {
+            if (aplicacao != null) {
+                aplicacao.close();
+            }
+            if (embutido != null) {
+                embutido.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacao(SimpleCommandLinePropertySource opcoes, String jdbcUrl,
+                                                                 String usuario, String senha) {
+        Map<String, Object> propriedades = new LinkedHashMap<>();
+        propriedades.put("server.port", "0");
+        propriedades.put("spring.main.banner-mode", "off");
+        propriedades.put("spring.datasource.url", jdbcUrl);
+        propriedades.put("spring.datasource.username", usuario);
+        propriedades.put("spring.datasource.password", senha);
+        propriedades.put("spring.r2dbc.url", jdbcUrl.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", ""));
+        // O log de SQL e as informações por requisição distorcem a medição
+        propriedades.put("logging.level.root", "WARN");
+        propriedades.put("logging.level.org.hibernate.SQL", "WARN");
+        propriedades.put("logging.level.com.br.contas", "WARN");
+        // A massa de dados tem meses além da retenção; o arquivamento mudaria os dados durante a carga
+        propriedades.put("contas.particoes.arquivamento.habilitado", "false");
+        propriedades.putAll(propriedadesAplicacao(opcoes));
+        // Como argumentos de linha de comando, para prevalecer sobre o application.properties
+        String[] argumentos = propriedades.entrySet().stream()
+                .map(propriedade -> "--" + propriedade.getKey() + "=" + propriedade.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ContasApagarApplication.class).run(argumentos);
+    }
+
+    private static Map<String, Object> propriedadesAplicacao(SimpleCommandLinePropertySource opcoes) {
+        Map<String, Object> propriedades = new LinkedHashMap<>();
+        for (String nome : opcoes.getPropertyNames()) {
+            if (nome.startsWith("app.")) {
+                propriedades.put(nome.substring(4), opcoes.getProperty(nome));
+            }
+        }
+        return propriedades;
+    }
+
+    private static String versaoPostgres(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW server_version")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static String opcao(SimpleCommandLinePropertySource opcoes, String nome, String padrao) {
+        String valor = opcoes.getProperty(nome);
+        return valor != null ? valor : padrao;
+    }
+}
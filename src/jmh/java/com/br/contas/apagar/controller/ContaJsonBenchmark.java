@@ -0,0 +1,64 @@
+package com.br.contas.apagar.controller;
+
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.dto.ContaDto;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização da página devolvida por GET /api/contas, com o ObjectMapper configurado como no Spring Boot
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ContaJsonBenchmark {
+
+    @Param({"20", "1000"})
+    private int tamanhoPagina;
+
+    private ObjectWriter writer;
+    private Page<ContaDto> page;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+
+        List<ContaDto> contas = new ArrayList<>(tamanhoPagina);
+        for (int i = 0; i < tamanhoPagina; i++) {
+            LocalDate vencimento = LocalDate.of(2025, 1, 1).plusDays(i % 365);
+            contas.add(new ContaDto((long) i + 1, vencimento, i % 3 == 0 ? null : vencimento, BigDecimal.valueOf(10_000 + i, 2),
+                    "Fornecedor " + i, i % 3 == 0 ? SituacaoConta.PENDENTE : SituacaoConta.PAGA, 0L));
+        }
+        page = new PageImpl<>(contas, PageRequest.of(0, tamanhoPagina), 350_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+}
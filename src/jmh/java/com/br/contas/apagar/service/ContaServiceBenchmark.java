@@ -0,0 +1,113 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.opencsv.CSVReader;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Conversão e validação das linhas do CSV de importação (a parte em CPU de importCsv, sem o banco)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ContaServiceBenchmark {
+    private static final String[] SITUACOES = {"Pendente", "Paga", "PAGO", "Vencida", "Em aberto", "Cancelada"};
+
+    private ContaService contaService;
+    private Conta conta;
+
+    @Setup
+    public void setUp() {
+        // parseLine e validateConta não usam o repositório, os importadores, o cache nem as métricas
+        contaService = new ContaService(null, null, null, null, null);
+
+        conta = new Conta();
+        conta.setDataVencimento(LocalDate.of(2025, 1, 10));
+        conta.setValor(new BigDecimal("1500.50"));
+        conta.setDescricao("Aluguel");
+        conta.setSituacao(SituacaoConta.PENDENTE);
+    }
+
+    // Arquivo gerado uma vez por tamanho; só parseCsv depende do número de linhas
+    @State(Scope.Benchmark)
+    public static class ArquivoCsv {
+        @Param({"1000", "100000"})
+        public int linhas;
+
+        public String csv;
+
+        @Setup
+        public void setUp() {
+            csv = gerarCsv(linhas, new Random(42));
+        }
+    }
+
+    // Linhas por segundo, reportadas pelo JMH como a métrica "linhas" do benchmark
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Contador {
+        public long linhas;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            linhas = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void parseCsv(ArquivoCsv arquivo, Contador contador, Blackhole blackhole) throws Exception {
+        try (CSVReader reader = new CSVReader(new StringReader(arquivo.csv))) {
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                blackhole.consume(contaService.parseLine(line));
+                contador.linhas++;
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Conta validateConta() {
+        contaService.validateConta(conta);
+        return conta;
+    }
+
+    static String gerarCsv(int linhas, Random random) {
+        StringBuilder csv = new StringBuilder(linhas * 64);
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < linhas; i++) {
+            LocalDate vencimento = inicio.plusDays(random.nextInt(730));
+            csv.append(vencimento).append(',');
+            if (random.nextInt(10) < 7) {
+                csv.append(vencimento.minusDays(random.nextInt(5)));
+            }
+            csv.append(',').append(BigDecimal.valueOf(1 + random.nextInt(500_000), 2).toPlainString()).append(',');
+            // Parte das descrições tem vírgulas e aspas, que exigem o tratamento de campos entre aspas
+            csv.append(i % 10 == 0 ? "\"Fornecedor " + i + ", parcela \"\"única\"\"\"" : "Fornecedor " + i).append(',');
+            csv.append(SITUACOES[random.nextInt(SITUACOES.length)]).append('\n');
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.br.contas.apagar.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Os benchmarks "referencia*" usam o formatter e o padrão pré-compilados: servem de meta para DateUtils e ValidationUtils
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UtilsBenchmark {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final Pattern ACCOUNT_NUMBER = Pattern.compile("\\d{6,}");
+
+    private final LocalDate data = LocalDate.of(2025, 3, 15);
+    private final String numeroConta = "12345678";
+
+    @Benchmark
+    public String formatDate() {
+        return DateUtils.formatDate(data);
+    }
+
+    @Benchmark
+    public String referenciaFormatDate() {
+        return data.format(FORMATTER);
+    }
+
+    @Benchmark
+    public boolean isValidAccountNumber() {
+        return ValidationUtils.isValidAccountNumber(numeroConta);
+    }
+
+    @Benchmark
+    public boolean referenciaIsValidAccountNumber() {
+        return ACCOUNT_NUMBER.matcher(numeroConta).matches();
+    }
+}
@@ -0,0 +1,10 @@
+package com.br.contas.apagar.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita as tarefas @Scheduled (manutenção das partições de contas e marcação das contas vencidas)
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
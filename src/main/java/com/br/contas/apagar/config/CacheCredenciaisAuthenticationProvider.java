@@ -0,0 +1,81 @@
+package com.br.contas.apagar.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+// Evita repetir a verificação da senha (BCrypt, cara de propósito) a cada requisição com autenticação básica:
+// depois da primeira verificação bem-sucedida, as mesmas credenciais são aceitas pelo SHA-256 de usuário e senha
+// até expirarem do cache. Falhas não são guardadas e sempre passam pelo provider original.
+public class CacheCredenciaisAuthenticationProvider implements AuthenticationProvider {
+    private final AuthenticationProvider delegate;
+    private final Cache<String, Authentication> verificadas;
+
+    public CacheCredenciaisAuthenticationProvider(AuthenticationProvider delegate, long maximumSize, Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.verificadas = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public CacheCredenciaisAuthenticationProvider monitor(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, verificadas, "contas.credenciais");
+        return this;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String senha)) {
+            return delegate.authenticate(authentication);
+        }
+        String chave = digest(authentication.getName(), senha);
+        Authentication verificada = verificadas.getIfPresent(chave);
+        if (verificada == null) {
+            verificada = delegate.authenticate(authentication);
+            if (verificada == null) {
+                return null;
+            }
+            verificadas.put(chave, verificada);
+        }
+        // Nova instância a cada requisição, com os detalhes (endereço remoto etc.) da requisição atual
+        UsernamePasswordAuthenticationToken resultado = UsernamePasswordAuthenticationToken.authenticated(
+                verificada.getPrincipal(), null, verificada.getAuthorities());
+        resultado.setDetails(authentication.getDetails());
+        return resultado;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    long size() {
+        verificadas.cleanUp();
+        return verificadas.estimatedSize();
+    }
+
+    private static String digest(String usuario, String senha) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(usuario.getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0);
+            sha256.update(senha.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
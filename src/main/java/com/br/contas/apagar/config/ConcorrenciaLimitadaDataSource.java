@@ -0,0 +1,108 @@
+package com.br.contas.apagar.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Limita as conexões em uso ao mesmo tempo com um semáforo justo (ordem de chegada). Com threads virtuais
+// milhares de requisições podem pedir conexão juntas: elas esperam aqui, com tempo máximo próprio,
+// em vez de disputarem o pool; a permissão é devolvida no close() da conexão
+public class ConcorrenciaLimitadaDataSource extends DelegatingDataSource {
+    private final Semaphore permissoes;
+    private final int maxConcorrencia;
+    private final long esperaMaximaNanos;
+
+    public ConcorrenciaLimitadaDataSource(DataSource dataSource, int maxConcorrencia, Duration esperaMaxima) {
+        super(dataSource);
+        if (maxConcorrencia <= 0) {
+            throw new IllegalArgumentException("O limite de conexões simultâneas deve ser maior que zero.");
+        }
+        this.permissoes = new Semaphore(maxConcorrencia, true);
+        this.maxConcorrencia = maxConcorrencia;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return limitada(getConnectionOrRelease(() -> obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return limitada(getConnectionOrRelease(() -> obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    public int getConexoesEmUso() {
+        return maxConcorrencia - permissoes.availablePermits();
+    }
+
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Limite de " + maxConcorrencia
+                        + " conexões simultâneas atingido; tempo de espera esgotado.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando uma conexão.", e);
+        }
+    }
+
+    private Connection getConnectionOrRelease(ConnectionSupplier supplier) throws SQLException {
+        try {
+            return supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    private Connection limitada(Connection connection) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if (method.getName().equals("close") && liberada.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permissoes.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
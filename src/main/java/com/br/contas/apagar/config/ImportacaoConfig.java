@@ -0,0 +1,29 @@
+package com.br.contas.apagar.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImportacaoConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor importacaoExecutor(
+            @Value("${contas.import.jobs.max-concurrent:2}") int maxConcurrent,
+            @Value("${contas.import.jobs.queue-capacity:20}") int queueCapacity,
+            @Value("${contas.threads.virtuais.habilitado:false}") boolean threadsVirtuais) {
+        // Limita as importações simultâneas (cada uma ocupa uma conexão); o excedente aguarda na fila limitada
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("importacao-");
+        if (threadsVirtuais) {
+            // Mantém o limite e a fila; só as threads que executam as importações passam a ser virtuais
+            executor.setThreadFactory(VirtualThreads.factory("importacao-"));
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -1,26 +1,64 @@
 package com.br.contas.apagar.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            UserDetailsService userDetailsService,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${contas.cache.credenciais.habilitado:true}") boolean cacheCredenciais,
+            @Value("${contas.cache.credenciais.maximum-size:1000}") long maximumSize,
+            @Value("${contas.cache.credenciais.expire-after-write:PT5M}") Duration expireAfterWrite) throws Exception {
         http
                 .csrf().disable()
                 .authorizeHttpRequests()
+                // O despacho ASYNC ao fim de uma resposta transmitida (ex.: exportação) já foi autorizado na requisição original
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
                 .anyRequest().authenticated()
                 .and()
                 .formLogin().disable()
                 .httpBasic();
 
+        // Sem o cache, cada requisição verifica a senha com o PasswordEncoder padrão (BCrypt)
+        if (cacheCredenciais) {
+            CacheCredenciaisAuthenticationProvider provider = new CacheCredenciaisAuthenticationProvider(
+                    daoAuthenticationProvider(userDetailsService), maximumSize, expireAfterWrite);
+            meterRegistry.ifAvailable(provider::monitor);
+            http.authenticationManager(new ProviderManager(provider));
+        }
+
         return http.build();
     }
-}
\ No newline at end of file
+
+    // O mesmo provider que o Spring Security monta a partir do UserDetailsService, inclusive a atualização
+    // da codificação da senha em memória após a primeira autenticação
+    private static DaoAuthenticationProvider daoAuthenticationProvider(UserDetailsService userDetailsService) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        if (userDetailsService instanceof UserDetailsPasswordService passwordService) {
+            provider.setUserDetailsPasswordService(passwordService);
+        }
+        return provider;
+    }
+}
@@ -0,0 +1,15 @@
+package com.br.contas.apagar.config;
+
+import com.br.contas.apagar.domain.SituacaoConta;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+// Parâmetros de requisição (ex: ?situacao=pendente) aceitam os mesmos valores que o JSON
+@Component
+public class StringToSituacaoContaConverter implements Converter<String, SituacaoConta> {
+
+    @Override
+    public SituacaoConta convert(String source) {
+        return SituacaoConta.of(source);
+    }
+}
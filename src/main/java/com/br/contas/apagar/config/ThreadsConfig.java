@@ -0,0 +1,61 @@
+package com.br.contas.apagar.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Modo com threads virtuais (contas.threads.virtuais.habilitado=true, exige Java 21): as requisições do Tomcat,
+// as respostas assíncronas do MVC e as importações rodam em threads virtuais, e o acesso ao banco é limitado
+// por um semáforo no DataSource (contas.db.max-concorrencia, por padrão o tamanho do pool)
+@Configuration
+@ConditionalOnProperty(name = "contas.threads.virtuais.habilitado", havingValue = "true")
+public class ThreadsConfig {
+
+    public ThreadsConfig() {
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("contas.threads.virtuais.habilitado=true exige Java 21 ou superior (em uso: Java "
+                    + Runtime.version().feature() + ").");
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("tomcat-"));
+    }
+
+    @Bean
+    public WebMvcConfigurer virtualThreadsAsyncConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(new TaskExecutorAdapter(VirtualThreads.newThreadPerTaskExecutor("mvc-async-")));
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor concorrenciaLimitadaDataSourcePostProcessor(
+            @Value("${contas.db.max-concorrencia:0}") int maxConcorrencia,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${contas.db.espera-maxima:PT30S}") Duration esperaMaxima) {
+        int limite = maxConcorrencia > 0 ? maxConcorrencia : poolSize;
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcorrenciaLimitadaDataSource)) {
+                    return new ConcorrenciaLimitadaDataSource(dataSource, limite, esperaMaxima);
+                }
+                return bean;
+            }
+        };
+    }
+}
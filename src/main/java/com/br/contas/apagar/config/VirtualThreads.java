@@ -0,0 +1,47 @@
+package com.br.contas.apagar.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// Acesso às threads virtuais (Java 21) por reflexão: o projeto continua compilando e rodando em Java 17,
+// e o modo com threads virtuais só pode ser habilitado quando a aplicação roda em Java 21 ou superior
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // Equivalente a Thread.ofVirtual().name(prefixo, 1).factory()
+    static ThreadFactory factory(String prefixo) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefixo, 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Threads virtuais exigem Java 21 ou superior (em uso: Java "
+                    + Runtime.version().feature() + ").", e);
+        }
+    }
+
+    // Uma thread virtual por tarefa, sem fila nem limite: o limite de acesso ao banco fica no DataSource
+    static ExecutorService newThreadPerTaskExecutor(String prefixo) {
+        ThreadFactory factory = factory(prefixo);
+        try {
+            Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Threads virtuais exigem Java 21 ou superior.", e);
+        }
+    }
+}
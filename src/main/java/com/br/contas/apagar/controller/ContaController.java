@@ -1,23 +1,53 @@
 package com.br.contas.apagar.controller;
 
 import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.Importacao;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.dto.AlteracaoSituacaoLote;
+import com.br.contas.apagar.dto.ContaCursorPage;
+import com.br.contas.apagar.dto.ContaDto;
+import com.br.contas.apagar.dto.ContaRequest;
+import com.br.contas.apagar.dto.ContaSincronizacao;
+import com.br.contas.apagar.dto.ContaVersao;
+import com.br.contas.apagar.dto.FaixaAtraso;
+import com.br.contas.apagar.dto.ImportacaoDto;
+import com.br.contas.apagar.dto.ResultadoLote;
+import com.br.contas.apagar.dto.TotalPagoCacheStats;
+import com.br.contas.apagar.dto.TotalPeriodo;
+import com.br.contas.apagar.service.ContaExportService;
 import com.br.contas.apagar.service.ContaService;
+import com.br.contas.apagar.service.ImportacaoService;
+import com.br.contas.apagar.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/contas")
@@ -26,6 +56,8 @@ import java.time.LocalDate;
 public class ContaController {
 
     private final ContaService contaService;
+    private final ImportacaoService importacaoService;
+    private final ContaExportService contaExportService;
     private static final Logger log = LoggerFactory.getLogger(ContaController.class);
 
     @PostMapping
@@ -35,18 +67,81 @@ public class ContaController {
         return ResponseEntity.status(201).body(savedConta); // Retorna 201 Created
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Criar contas em lote", description = "Cria as contas do array em lotes JDBC; o resultado informa, para cada posição do array, o id criado ou o erro de validação")
+    public ResponseEntity<List<ResultadoLote>> createAll(@RequestBody List<Conta> contas) {
+        try {
+            return ResponseEntity.ok(contaService.saveAll(contas));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para lote vazio ou acima do limite
+        }
+    }
+
+    @GetMapping("/lote")
+    @Operation(summary = "Obter contas em lote", description = "Obtém várias contas pelos ids com uma única consulta, informando os ids não encontrados")
+    public ResponseEntity<List<ResultadoLote>> getAllByIds(
+            @Parameter(description = "Ids das contas (ex: ids=1,2,3)")
+            @RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(contaService.getAllByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para lote vazio ou acima do limite
+        }
+    }
+
+    @PatchMapping("/lote/situacao")
+    @Operation(summary = "Alterar a situação de contas em lote", description = "Altera a situação (e opcionalmente a data de pagamento) das contas pelos ids ou pelos filtros da listagem, com um único UPDATE")
+    public ResponseEntity<List<ResultadoLote>> updateSituacaoInBulk(@RequestBody AlteracaoSituacaoLote alteracao) {
+        try {
+            return ResponseEntity.ok(contaService.updateSituacaoInBulk(alteracao));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para situação ausente ou seleção inválida
+        }
+    }
+
     @PutMapping("/{id}")
-    @Operation(summary = "Atualizar uma conta existente", description = "Atualiza os detalhes de uma conta a pagar")
+    @Operation(summary = "Atualizar uma conta existente", description = "Atualiza os detalhes de uma conta a pagar com um único UPDATE condicional à versão do If-Match (ou do corpo)")
     public ResponseEntity<Conta> update(
             @PathVariable Long id,
-            @RequestBody Conta conta) {
-        Conta updatedConta = contaService.update(id, conta);
-        return updatedConta != null ? ResponseEntity.ok(updatedConta) : ResponseEntity.notFound().build(); // Retorna 404 caso não encontre a conta
+            @RequestBody Conta conta,
+
+            @Parameter(description = "ETag da conta; a alteração só é feita se a conta ainda estiver nessa versão")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Conta updatedConta;
+        try {
+            updatedConta = contaService.update(id, conta, ETags.parseVersion(ifMatch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para conta inválida ou If-Match inválido
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // Retorna 409 caso a conta tenha mudado de versão
+        }
+        return updatedConta != null ? ResponseEntity.ok().eTag(ETags.of(updatedConta.getVersion())).body(updatedConta)
+                : ResponseEntity.notFound().build(); // Retorna 404 caso não encontre a conta
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Alterar campos de uma conta", description = "Altera apenas os campos informados, com um único UPDATE condicional à versão do If-Match")
+    public ResponseEntity<Conta> updatePartial(
+            @PathVariable Long id,
+            @RequestBody ContaRequest alteracoes,
+
+            @Parameter(description = "ETag da conta; a alteração só é feita se a conta ainda estiver nessa versão")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Conta updatedConta;
+        try {
+            updatedConta = contaService.updatePartial(id, alteracoes, ETags.parseVersion(ifMatch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para campos inválidos ou If-Match inválido
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // Retorna 409 caso a conta tenha mudado de versão
+        }
+        return updatedConta != null ? ResponseEntity.ok().eTag(ETags.of(updatedConta.getVersion())).body(updatedConta)
+                : ResponseEntity.notFound().build(); // Retorna 404 caso não encontre a conta
     }
 
     @GetMapping
     @Operation(summary = "Obter a lista de contas a pagar", description = "Obtém uma lista paginada de contas com filtros por data de vencimento e descrição")
-    public ResponseEntity<Page<Conta>> getAll(
+    public ResponseEntity<Page<ContaDto>> getAll(
             @Parameter(description = "Data de início do filtro de vencimento")
             @RequestParam(required = false) LocalDate startDate,
 
@@ -56,15 +151,155 @@ public class ContaController {
             @Parameter(description = "Descrição para filtragem das contas")
             @RequestParam(required = false) String descricao,
 
+            @Parameter(description = "Situação das contas (PENDENTE, PAGA, VENCIDA ou CANCELADA)")
+            @RequestParam(required = false) SituacaoConta situacao,
+
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+
             Pageable pageable) {
-        return ResponseEntity.ok(contaService.getAllWithFilters(startDate, endDate, descricao, pageable));
+        Page<ContaDto> contas;
+        if (ifNoneMatch != null) {
+            Page<ContaVersao> versoes = contaService.getVersionsWithFilters(startDate, endDate, descricao, situacao, pageable);
+            String etag = ETags.ofPage(versoes.getTotalElements(), versoes.getContent());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build(); // Retorna 304 caso a página não tenha mudado
+            }
+            // O total já veio da consulta de versões: a página é lida sem um segundo COUNT
+            Slice<ContaDto> fatia = contaService.getSliceWithFilters(startDate, endDate, descricao, situacao, pageable);
+            contas = new PageImpl<>(fatia.getContent(), pageable, versoes.getTotalElements());
+        } else {
+            contas = contaService.getAllWithFilters(startDate, endDate, descricao, situacao, pageable);
+        }
+        List<ContaVersao> versoes = contas.getContent().stream()
+                .map(conta -> new ContaVersao(conta.getId(), conta.getVersion()))
+                .toList();
+        return ResponseEntity.ok().eTag(ETags.ofPage(contas.getTotalElements(), versoes)).body(contas);
+    }
+
+    @GetMapping(params = "count=false")
+    @Operation(summary = "Obter a lista de contas a pagar sem contagem total", description = "Obtém uma fatia da lista de contas com os mesmos filtros, sem executar a contagem total de registros")
+    public ResponseEntity<Slice<ContaDto>> getAllWithoutCount(
+            @Parameter(description = "Data de início do filtro de vencimento")
+            @RequestParam(required = false) LocalDate startDate,
+
+            @Parameter(description = "Data de fim do filtro de vencimento")
+            @RequestParam(required = false) LocalDate endDate,
+
+            @Parameter(description = "Descrição para filtragem das contas")
+            @RequestParam(required = false) String descricao,
+
+            @Parameter(description = "Situação das contas (PENDENTE, PAGA, VENCIDA ou CANCELADA)")
+            @RequestParam(required = false) SituacaoConta situacao,
+
+            Pageable pageable) {
+        return ResponseEntity.ok(contaService.getSliceWithFilters(startDate, endDate, descricao, situacao, pageable));
+    }
+
+    @GetMapping("/exportar")
+    @Operation(summary = "Exportar as contas filtradas", description = "Transmite todas as contas dos filtros informados, sem paginação, em CSV (mesmo layout da importação) ou NDJSON")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Data de início do filtro de vencimento")
+            @RequestParam(required = false) LocalDate startDate,
+
+            @Parameter(description = "Data de fim do filtro de vencimento")
+            @RequestParam(required = false) LocalDate endDate,
+
+            @Parameter(description = "Descrição para filtragem das contas")
+            @RequestParam(required = false) String descricao,
+
+            @Parameter(description = "Situação das contas (PENDENTE, PAGA, VENCIDA ou CANCELADA)")
+            @RequestParam(required = false) SituacaoConta situacao,
+
+            @Parameter(description = "Formato da exportação: csv ou ndjson")
+            @RequestParam(defaultValue = "csv") String formato) {
+        // As linhas são gravadas na resposta à medida que são lidas do banco
+        if (formato.equalsIgnoreCase("csv")) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contas.csv\"")
+                    .body(out -> contaExportService.exportCsv(startDate, endDate, descricao, situacao, out));
+        }
+        if (formato.equalsIgnoreCase("ndjson")) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contas.ndjson\"")
+                    .body(out -> contaExportService.exportNdjson(startDate, endDate, descricao, situacao, out));
+        }
+        return ResponseEntity.badRequest().build(); // Retorna 400 para formato não suportado
+    }
+
+    @GetMapping("/sincronizacao")
+    @Operation(summary = "Obter as alterações de contas desde um cursor", description = "Devolve em lotes as contas criadas, alteradas ou removidas depois do cursor, na ordem em que as transações terminaram, para manter cópias atualizadas sem reler a lista inteira")
+    public ResponseEntity<ContaSincronizacao> getChanges(
+            @Parameter(description = "Cursor devolvido em 'cursor' pela chamada anterior; sem cursor a sincronização começa do início")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Quantidade máxima de alterações no lote")
+            @RequestParam(defaultValue = "1000") int limite) {
+        try {
+            return ResponseEntity.ok(contaService.getChangesAfter(cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para cursor ou limite inválido
+        }
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Percorrer a lista de contas por cursor", description = "Obtém as contas na ordem de vencimento, descrição e id a partir de um cursor de continuação, sem OFFSET")
+    public ResponseEntity<ContaCursorPage> getAllByCursor(
+            @Parameter(description = "Data de início do filtro de vencimento")
+            @RequestParam(required = false) LocalDate startDate,
+
+            @Parameter(description = "Data de fim do filtro de vencimento")
+            @RequestParam(required = false) LocalDate endDate,
+
+            @Parameter(description = "Descrição para filtragem das contas")
+            @RequestParam(required = false) String descricao,
+
+            @Parameter(description = "Situação das contas (PENDENTE, PAGA, VENCIDA ou CANCELADA)")
+            @RequestParam(required = false) SituacaoConta situacao,
+
+            @Parameter(description = "Cursor devolvido em 'nextCursor' pela página anterior")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Quantidade de contas por página")
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(contaService.getPageAfterCursor(startDate, endDate, descricao, situacao, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para cursor ou tamanho inválido
+        }
+    }
+
+    @GetMapping("/busca")
+    @Operation(summary = "Buscar contas por descrição", description = "Obtém as contas cuja descrição é semelhante ao termo informado, ordenadas por relevância")
+    public ResponseEntity<List<ContaDto>> searchByDescricao(
+            @Parameter(description = "Termo buscado na descrição (ex: nome do fornecedor)")
+            @RequestParam String termo,
+
+            @Parameter(description = "Quantidade máxima de contas retornadas")
+            @RequestParam(defaultValue = "20") int limite) {
+        try {
+            return ResponseEntity.ok(contaService.searchByDescricao(termo, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para termo ou limite inválido
+        }
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obter uma conta por ID", description = "Obtém uma conta específica pelo ID")
-    public ResponseEntity<Conta> getById(@PathVariable Long id) {
-        Conta conta = contaService.getById(id);
-        return conta != null ? ResponseEntity.ok(conta) : ResponseEntity.notFound().build(); // Retorna 404 caso não encontre a conta
+    public ResponseEntity<ContaDto> getById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            // Consulta só a versão; a conta não é carregada nem serializada quando o cliente já a possui
+            Optional<String> etag = contaService.getVersion(id).map(ETags::of);
+            if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build(); // Retorna 304 caso a conta não tenha mudado
+            }
+        }
+
+        ContaDto conta = contaService.getById(id);
+        return conta != null ? ResponseEntity.ok().eTag(ETags.of(conta.getVersion())).body(conta) : ResponseEntity.notFound().build(); // Retorna 404 caso não encontre a conta
     }
 
     @GetMapping("/total")
@@ -84,33 +319,148 @@ public class ContaController {
         }
     }
 
+    @GetMapping("/total/periodos")
+    @Operation(summary = "Obter o valor total pago em vários períodos", description = "Obtém, em uma única chamada, o total pago em cada período; as datas de início e de fim são pareadas pela ordem em que são informadas")
+    public ResponseEntity<List<TotalPeriodo>> getTotalPaidByPeriods(
+            @Parameter(description = "Datas de início dos períodos (dd/MM/yyyy)")
+            @RequestParam List<String> startDate,
+
+            @Parameter(description = "Datas de fim dos períodos (dd/MM/yyyy)")
+            @RequestParam List<String> endDate) {
+        try {
+            return ResponseEntity.ok(contaService.getTotalPaidByPeriods(startDate, endDate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para datas ou períodos inválidos
+        }
+    }
+
+    @GetMapping("/total/mensal")
+    @Operation(summary = "Obter o valor total pago mês a mês", description = "Obtém o total pago em cada mês do período informado, incluindo os meses sem pagamento")
+    public ResponseEntity<List<TotalPeriodo>> getTotalPaidByMonth(
+            @Parameter(description = "Data de início do filtro (dd/MM/yyyy)")
+            @RequestParam String startDate,
+
+            @Parameter(description = "Data de fim do filtro (dd/MM/yyyy)")
+            @RequestParam String endDate) {
+        try {
+            return ResponseEntity.ok(contaService.getTotalPaidByMonth(startDate, endDate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para datas ou períodos inválidos
+        }
+    }
+
+    @GetMapping("/relatorios/atraso")
+    @Operation(summary = "Obter o aging das contas em aberto", description = "Obtém o total e a quantidade de contas pendentes ou vencidas por faixa de dias de atraso (1-30, 31-60, 61-90 e 90+) na data base informada")
+    public ResponseEntity<List<FaixaAtraso>> getOverdueAging(
+            @Parameter(description = "Data base do cálculo do atraso (dd/MM/yyyy); padrão: hoje")
+            @RequestParam(required = false) String dataBase) {
+        try {
+            return ResponseEntity.ok(contaService.getOverdueAging(dataBase));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para data inválida
+        }
+    }
+
+    @GetMapping("/relatorios/fluxo-caixa")
+    @Operation(summary = "Obter a projeção de pagamentos", description = "Obtém o total a pagar das contas em aberto por dia ou por semana (7 dias a partir da data de início), incluindo os períodos sem vencimentos")
+    public ResponseEntity<List<TotalPeriodo>> getProjectedOutflow(
+            @Parameter(description = "Data de início da projeção (dd/MM/yyyy); padrão: hoje")
+            @RequestParam(required = false) String startDate,
+
+            @Parameter(description = "Quantidade de dias projetados")
+            @RequestParam(defaultValue = "90") int dias,
+
+            @Parameter(description = "Agrupamento dos totais: dia ou semana")
+            @RequestParam(defaultValue = "dia") String agrupamento) {
+        try {
+            return ResponseEntity.ok(contaService.getProjectedOutflow(startDate, dias, agrupamento));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para data, dias ou agrupamento inválidos
+        }
+    }
+
+    @GetMapping("/total/cache")
+    @Operation(summary = "Obter estatísticas do cache de totais", description = "Obtém o tamanho e os acertos e falhas do cache de totais pagos por período")
+    public ResponseEntity<TotalPagoCacheStats> getTotalPaidCacheStats() {
+        return ResponseEntity.ok(contaService.getTotalPaidCacheStats());
+    }
+
+    @PostMapping("/total/reconstruir")
+    @Operation(summary = "Reconstruir os totais pagos por dia", description = "Recalcula a tabela de totais diários a partir das contas; as gravações de contas aguardam até o fim do recálculo")
+    public ResponseEntity<Long> rebuildTotalPaid() {
+        return ResponseEntity.ok(contaService.rebuildDailyTotalsPaid()); // Retorna a quantidade de dias com pagamento
+    }
+
     @PatchMapping("/{id}/situacao")
-    @Operation(summary = "Alterar situação da conta", description = "Altera a situação de uma conta (ex: de 'Pendente' para 'Pago')")
+    @Operation(summary = "Alterar situação da conta", description = "Altera a situação de uma conta (ex: de 'Pendente' para 'Pago') com um único UPDATE condicional à versão do If-Match")
     public ResponseEntity<Conta> updateSituacao(
             @PathVariable Long id,
-            @RequestBody String situacao) {
-        Conta updatedConta = contaService.updateSituacao(id, situacao);
-        return updatedConta != null ? ResponseEntity.ok(updatedConta) : ResponseEntity.notFound().build(); // Retorna 404 caso não encontre a conta
+            @RequestBody String situacao,
+
+            @Parameter(description = "ETag da conta; a alteração só é feita se a conta ainda estiver nessa versão")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Conta updatedConta;
+        try {
+            updatedConta = contaService.updateSituacao(id, situacao, ETags.parseVersion(ifMatch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Retorna 400 para situação desconhecida ou If-Match inválido
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // Retorna 409 caso a conta tenha mudado de versão
+        }
+        return updatedConta != null ? ResponseEntity.ok().eTag(ETags.of(updatedConta.getVersion())).body(updatedConta)
+                : ResponseEntity.notFound().build(); // Retorna 404 caso não encontre a conta
     }
 
-        @PostMapping("/importar")
-        @Operation(summary = "Importar contas a pagar via arquivo CSV", description = "Recebe um arquivo CSV e importa as contas a pagar")
-        public ResponseEntity<String> importCsv(@RequestParam("file") MultipartFile file) {
-            log.info("Iniciando importação do arquivo CSV: {}", file.getOriginalFilename());
+    @PostMapping("/importar")
+    @Operation(summary = "Importar contas a pagar via arquivo CSV", description = "Recebe um arquivo CSV e agenda a importação das contas a pagar, devolvendo o identificador da importação")
+    public ResponseEntity<?> importCsv(
+            @RequestParam("file") MultipartFile file,
 
-            if (file.isEmpty()) {
-                log.warn("Arquivo vazio recebido para importação.");
-                return ResponseEntity.badRequest().body("Arquivo CSV não fornecido ou vazio.");
-            }
+            @Parameter(description = "Ignora as linhas inválidas, registrando-as no arquivo de rejeições, em vez de interromper a importação")
+            @RequestParam(defaultValue = "false") boolean ignorarInvalidas) {
+        log.info("Iniciando importação do arquivo CSV: {}", file.getOriginalFilename());
 
-            try {
-                contaService.importCsv(file);
-                log.info("Importação do arquivo CSV {} concluída com sucesso", file.getOriginalFilename());
-                return ResponseEntity.ok("Contas importadas com sucesso.");
-            } catch (Exception e) {
-                log.error("Erro inesperado ao processar o arquivo CSV: {}", e.getMessage(), e);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Erro ao processar arquivo CSV: " + e.getMessage());
-            }
+        if (file.isEmpty()) {
+            log.warn("Arquivo vazio recebido para importação.");
+            return ResponseEntity.badRequest().body("Arquivo CSV não fornecido ou vazio.");
         }
+
+        try {
+            Importacao importacao = importacaoService.submit(file, ignorarInvalidas);
+            log.info("Importação {} do arquivo CSV {} agendada", importacao.getId(), file.getOriginalFilename());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/contas/importar/" + importacao.getId()))
+                    .body(ImportacaoDto.of(importacao, LocalDateTime.now())); // Retorna 202 Accepted com o id da importação
+        } catch (TaskRejectedException e) {
+            log.warn("Limite de importações simultâneas atingido para o arquivo {}", file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Limite de importações simultâneas atingido. Tente novamente mais tarde.");
+        } catch (Exception e) {
+            log.error("Erro inesperado ao processar o arquivo CSV: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erro ao processar arquivo CSV: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/importar/{jobId}")
+    @Operation(summary = "Consultar uma importação de CSV", description = "Obtém o andamento de uma importação: linhas processadas, linhas por segundo, erros e tempo estimado")
+    public ResponseEntity<ImportacaoDto> getImportacao(@PathVariable Long jobId) {
+        return importacaoService.getById(jobId)
+                .map(importacao -> ResponseEntity.ok(ImportacaoDto.of(importacao, LocalDateTime.now())))
+                .orElseGet(() -> ResponseEntity.notFound().build()); // Retorna 404 caso não encontre a importação
+    }
+
+    @GetMapping("/importar/{jobId}/rejeicoes")
+    @Operation(summary = "Baixar as linhas rejeitadas de uma importação", description = "Obtém o CSV com número, conteúdo e motivo de cada linha ignorada por uma importação com ignorarInvalidas")
+    public ResponseEntity<Resource> getRejeicoes(@PathVariable Long jobId) {
+        return importacaoService.getById(jobId)
+                .filter(importacao -> importacao.getArquivoRejeicoes() != null)
+                .map(importacao -> new FileSystemResource(importacao.getArquivoRejeicoes()))
+                .filter(FileSystemResource::exists)
+                .map(arquivo -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("text/csv"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"importacao-" + jobId + "-rejeicoes.csv\"")
+                        .body((Resource) arquivo))
+                .orElseGet(() -> ResponseEntity.notFound().build()); // Retorna 404 caso a importação não tenha rejeições
+    }
 }
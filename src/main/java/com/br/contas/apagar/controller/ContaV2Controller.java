@@ -0,0 +1,113 @@
+package com.br.contas.apagar.controller;
+
+import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.dto.ContaVersao;
+import com.br.contas.apagar.service.ContaReativaService;
+import com.br.contas.apagar.util.ETags;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Leituras não bloqueantes (R2DBC): a thread da requisição é liberada enquanto o banco responde.
+// Mesmos filtros, formato de Conta e ETags da API v1; criação e alteração continuam em /api/contas
+@RestController
+@RequestMapping("/api/v2/contas")
+@RequiredArgsConstructor
+@Tag(name = "Contas a Pagar v2", description = "Consultas não bloqueantes das contas a pagar")
+public class ContaV2Controller {
+
+    private final ContaReativaService contaReativaService;
+
+    @GetMapping
+    @Operation(summary = "Obter a lista de contas a pagar", description = "Obtém a lista paginada de contas com os mesmos filtros de /api/contas")
+    public Mono<ResponseEntity<Page<Conta>>> getAll(
+            @Parameter(description = "Data de início do filtro de vencimento")
+            @RequestParam(required = false) LocalDate startDate,
+
+            @Parameter(description = "Data de fim do filtro de vencimento")
+            @RequestParam(required = false) LocalDate endDate,
+
+            @Parameter(description = "Descrição para filtragem das contas")
+            @RequestParam(required = false) String descricao,
+
+            @Parameter(description = "Situação das contas (PENDENTE, PAGA, VENCIDA ou CANCELADA)")
+            @RequestParam(required = false) SituacaoConta situacao,
+
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+
+            Pageable pageable) {
+        return contaReativaService.getAllWithFilters(startDate, endDate, descricao, situacao, pageable)
+                .map(contas -> {
+                    List<ContaVersao> versoes = contas.getContent().stream()
+                            .map(conta -> new ContaVersao(conta.getId(), conta.getVersion()))
+                            .toList();
+                    String etag = ETags.ofPage(contas.getTotalElements(), versoes);
+                    if (ifNoneMatch != null && ETags.matches(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build(); // Retorna 304 caso a página não tenha mudado
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(contas);
+                });
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Transmitir as contas filtradas", description = "Transmite todas as contas do filtro, uma por linha (NDJSON), lidas do banco conforme o cliente consome")
+    public Flux<Conta> stream(
+            @Parameter(description = "Data de início do filtro de vencimento")
+            @RequestParam(required = false) LocalDate startDate,
+
+            @Parameter(description = "Data de fim do filtro de vencimento")
+            @RequestParam(required = false) LocalDate endDate,
+
+            @Parameter(description = "Descrição para filtragem das contas")
+            @RequestParam(required = false) String descricao,
+
+            @Parameter(description = "Situação das contas (PENDENTE, PAGA, VENCIDA ou CANCELADA)")
+            @RequestParam(required = false) SituacaoConta situacao) {
+        return contaReativaService.streamWithFilters(startDate, endDate, descricao, situacao);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Obter uma conta por ID", description = "Obtém uma conta específica pelo ID")
+    public Mono<ResponseEntity<Conta>> getById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return contaReativaService.getById(id)
+                .map(conta -> {
+                    String etag = ETags.of(conta.getVersion());
+                    if (ifNoneMatch != null && ETags.matches(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<Conta>build(); // Retorna 304 caso a conta não tenha mudado
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(conta);
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build()); // Retorna 404 caso não encontre a conta
+    }
+
+    @GetMapping("/total")
+    @Operation(summary = "Obter o valor total pago por período", description = "Obtém o valor total pago no período informado")
+    public Mono<ResponseEntity<BigDecimal>> getTotalPaidByPeriod(
+            @Parameter(description = "Data de início do filtro (dd/MM/yyyy)")
+            @RequestParam String startDate,
+
+            @Parameter(description = "Data de fim do filtro (dd/MM/yyyy)")
+            @RequestParam String endDate) {
+        return contaReativaService.getTotalPaidByPeriod(startDate, endDate)
+                .map(total -> ResponseEntity.ok(total.orElse(null)))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().build())); // Retorna 400 para datas ou períodos inválidos
+    }
+}
@@ -9,8 +9,12 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "contas")
 public class Conta {
+    // Incremento da contas_id_seq: cada nextval reserva este número de ids (otimizador pooled)
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contas_id_seq")
+    @SequenceGenerator(name = "contas_id_seq", sequenceName = "contas_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "data_vencimento", nullable = false)
@@ -26,5 +30,11 @@ public class Conta {
     private String descricao;
 
     @Column(nullable = false)
-    private String situacao;
+    @Convert(converter = SituacaoContaAttributeConverter.class)
+    private SituacaoConta situacao;
+
+    // Incrementada a cada alteração; atualizações em lote feitas em SQL também devem incrementá-la
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
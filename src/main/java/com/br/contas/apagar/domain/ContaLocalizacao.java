@@ -0,0 +1,21 @@
+package com.br.contas.apagar.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+// Vencimento (chave de particionamento) de cada conta pelo id; mantido pelos gatilhos da tabela contas,
+// somente leitura na aplicação
+@Data
+@Entity
+@Immutable
+@Table(name = "contas_localizacao")
+public class ContaLocalizacao {
+    @Id
+    private Long id;
+
+    @Column(name = "data_vencimento", nullable = false)
+    private LocalDate dataVencimento;
+}
@@ -0,0 +1,25 @@
+package com.br.contas.apagar.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Total pago por dia; mantido pelos gatilhos da tabela contas, somente leitura na aplicação
+@Data
+@Entity
+@Immutable
+@Table(name = "contas_pagas_diario")
+public class ContaPagaDiario {
+    @Id
+    @Column(name = "data_pagamento")
+    private LocalDate dataPagamento;
+
+    @Column(name = "valor_total", nullable = false)
+    private BigDecimal valorTotal;
+
+    @Column(nullable = false)
+    private long quantidade;
+}
@@ -0,0 +1,69 @@
+package com.br.contas.apagar.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "importacoes")
+public class Importacao {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportacaoStatus status;
+
+    @Column(name = "nome_arquivo")
+    private String nomeArquivo;
+
+    @Column(nullable = false)
+    private String arquivo;
+
+    @Column(name = "no_execucao", nullable = false)
+    private String noExecucao;
+
+    @Column(name = "bytes_total", nullable = false)
+    private long bytesTotal;
+
+    @Column(name = "byte_offset", nullable = false)
+    private long byteOffset;
+
+    @Column(name = "linhas_processadas", nullable = false)
+    private long linhasProcessadas;
+
+    @Column(name = "linhas_rejeitadas", nullable = false)
+    private long linhasRejeitadas;
+
+    @Column(name = "ignorar_invalidas", nullable = false)
+    private boolean ignorarInvalidas;
+
+    @Column(name = "arquivo_rejeicoes")
+    private String arquivoRejeicoes;
+
+    @Column(name = "rejeicoes_offset", nullable = false)
+    private long rejeicoesOffset;
+
+    private String erro;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "iniciado_em")
+    private LocalDateTime iniciadoEm;
+
+    @Column(name = "concluido_em")
+    private LocalDateTime concluidoEm;
+
+    // Início da execução corrente (a primeira ou uma retomada) e o checkpoint de onde ela partiu
+    @Column(name = "execucao_iniciada_em")
+    private LocalDateTime execucaoIniciadaEm;
+
+    @Column(name = "execucao_byte_offset", nullable = false)
+    private long execucaoByteOffset;
+
+    @Column(name = "execucao_linhas", nullable = false)
+    private long execucaoLinhas;
+}
@@ -0,0 +1,8 @@
+package com.br.contas.apagar.domain;
+
+public enum ImportacaoStatus {
+    PENDENTE,
+    EM_ANDAMENTO,
+    CONCLUIDA,
+    FALHOU
+}
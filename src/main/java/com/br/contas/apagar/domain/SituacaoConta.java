@@ -0,0 +1,52 @@
+package com.br.contas.apagar.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+// Gravada como smallint (codigo); os códigos não podem mudar, pois são usados nos índices parciais
+public enum SituacaoConta {
+    PENDENTE(1),
+    PAGA(2),
+    VENCIDA(3),
+    CANCELADA(4);
+
+    private final short codigo;
+
+    SituacaoConta(int codigo) {
+        this.codigo = (short) codigo;
+    }
+
+    public short getCodigo() {
+        return codigo;
+    }
+
+    public static SituacaoConta fromCodigo(short codigo) {
+        for (SituacaoConta situacao : values()) {
+            if (situacao.codigo == codigo) {
+                return situacao;
+            }
+        }
+        throw new IllegalArgumentException("Código de situação inválido: " + codigo);
+    }
+
+    // Aceita o nome da constante e os textos livres usados antes do enum ("Pendente", "Pago", "Paga"...),
+    // sem diferenciar maiúsculas ou acentos
+    @JsonCreator
+    public static SituacaoConta of(String valor) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("O campo 'Situação' é obrigatório.");
+        }
+        String normalizado = Normalizer.normalize(valor.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toUpperCase(Locale.ROOT);
+        return switch (normalizado) {
+            case "PENDENTE", "EM ABERTO", "ABERTA", "ABERTO" -> PENDENTE;
+            case "PAGA", "PAGO" -> PAGA;
+            case "VENCIDA", "VENCIDO", "ATRASADA", "ATRASADO" -> VENCIDA;
+            case "CANCELADA", "CANCELADO" -> CANCELADA;
+            default -> throw new IllegalArgumentException("Situação inválida: " + valor);
+        };
+    }
+}
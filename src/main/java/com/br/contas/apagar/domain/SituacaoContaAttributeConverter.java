@@ -0,0 +1,18 @@
+package com.br.contas.apagar.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class SituacaoContaAttributeConverter implements AttributeConverter<SituacaoConta, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(SituacaoConta situacao) {
+        return situacao != null ? situacao.getCodigo() : null;
+    }
+
+    @Override
+    public SituacaoConta convertToEntityAttribute(Short codigo) {
+        return codigo != null ? SituacaoConta.fromCodigo(codigo) : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.br.contas.apagar.dto;
+
+import com.br.contas.apagar.domain.SituacaoConta;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+// Alteração de situação em lote: pelos ids informados ou pelos mesmos filtros da listagem (nunca pelos dois)
+@Data
+public class AlteracaoSituacaoLote {
+    private List<Long> ids;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String descricao;
+    private SituacaoConta situacao;
+    private LocalDate dataPagamento;
+}
@@ -0,0 +1,17 @@
+package com.br.contas.apagar.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ContaAlteracao {
+    // Transação que gravou a alteração; só compõe o cursor da sincronização
+    @JsonIgnore
+    private long transacao;
+    private Long id;
+    private boolean removida;
+    // Estado atual da conta; nulo quando ela foi removida
+    private ContaDto conta;
+}
@@ -0,0 +1,13 @@
+package com.br.contas.apagar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class ContaAlterada {
+    private Long id;
+    private LocalDate dataPagamentoAnterior;
+    private LocalDate dataPagamento;
+}
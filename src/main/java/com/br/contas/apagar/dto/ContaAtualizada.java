@@ -0,0 +1,13 @@
+package com.br.contas.apagar.dto;
+
+import com.br.contas.apagar.domain.Conta;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class ContaAtualizada {
+    private Conta conta;
+    private LocalDate dataPagamentoAnterior;
+}
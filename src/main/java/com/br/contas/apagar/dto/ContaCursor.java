@@ -0,0 +1,37 @@
+package com.br.contas.apagar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+@Data
+@AllArgsConstructor
+public class ContaCursor {
+    private LocalDate dataVencimento;
+    private String descricao;
+    private Long id;
+
+    public static ContaCursor of(ContaDto conta) {
+        return new ContaCursor(conta.getDataVencimento(), conta.getDescricao(), conta.getId());
+    }
+
+    public String encode() {
+        // Token opaco com a última posição na ordem (dataVencimento, descricao, id);
+        // a descrição fica por último porque pode conter o separador
+        String raw = dataVencimento + "|" + id + "|" + descricao;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ContaCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            return new ContaCursor(LocalDate.parse(parts[0]), parts[2], Long.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido.", e);
+        }
+    }
+}
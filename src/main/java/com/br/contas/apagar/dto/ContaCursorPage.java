@@ -0,0 +1,13 @@
+package com.br.contas.apagar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ContaCursorPage {
+    private List<ContaDto> content;
+    private String nextCursor;
+}
@@ -1,15 +1,22 @@
 package com.br.contas.apagar.dto;
 
+import com.br.contas.apagar.domain.SituacaoConta;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+// Conta somente para leitura, projetada direto da consulta (sem entidade gerenciada); mesmo JSON de Conta
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ContaDto {
     private Long id;
     private LocalDate dataVencimento;
     private LocalDate dataPagamento;
     private BigDecimal valor;
     private String descricao;
-    private String situacao;
-}
\ No newline at end of file
+    private SituacaoConta situacao;
+    private Long version;
+}
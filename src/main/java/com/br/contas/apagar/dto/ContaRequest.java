@@ -1,5 +1,6 @@
 package com.br.contas.apagar.dto;
 
+import com.br.contas.apagar.domain.SituacaoConta;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -10,5 +11,5 @@ public class ContaRequest {
     private LocalDate dataPagamento;
     private BigDecimal valor;
     private String descricao;
-    private String situacao;
+    private SituacaoConta situacao;
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.br.contas.apagar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ContaSincronizacao {
+    private List<ContaAlteracao> alteracoes;
+    private String cursor;
+    private boolean temMais;
+}
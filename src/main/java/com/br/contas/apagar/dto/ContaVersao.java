@@ -0,0 +1,11 @@
+package com.br.contas.apagar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ContaVersao {
+    private Long id;
+    private Long version;
+}
@@ -0,0 +1,36 @@
+package com.br.contas.apagar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Data
+@AllArgsConstructor
+public class CursorSincronizacao {
+    public static final CursorSincronizacao INICIO = new CursorSincronizacao(0, 0);
+
+    private long transacao;
+    private long id;
+
+    public static CursorSincronizacao of(ContaAlteracao alteracao) {
+        return new CursorSincronizacao(alteracao.getTransacao(), alteracao.getId());
+    }
+
+    public String encode() {
+        // Token opaco com a última posição na ordem (transacao, id)
+        String raw = transacao + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorSincronizacao decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            return new CursorSincronizacao(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido.", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.br.contas.apagar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Contas em aberto vencidas há entre diasMinimo e diasMaximo dias (diasMaximo nulo: sem limite)
+@Data
+@AllArgsConstructor
+public class FaixaAtraso {
+    private String faixa;
+    private int diasMinimo;
+    private Integer diasMaximo;
+    private BigDecimal total;
+    private long quantidade;
+}
@@ -0,0 +1,22 @@
+package com.br.contas.apagar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportReport {
+    private String engine;
+    private long importedRows;
+    private long rejectedRows;
+    private long elapsedMillis;
+
+    public static ImportReport of(String engine, long importedRows, long rejectedRows, long startNanos) {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        return new ImportReport(engine, importedRows, rejectedRows, elapsedMillis);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0 : importedRows * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,59 @@
+package com.br.contas.apagar.dto;
+
+import com.br.contas.apagar.domain.Importacao;
+import com.br.contas.apagar.domain.ImportacaoStatus;
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Data
+public class ImportacaoDto {
+    private Long id;
+    private ImportacaoStatus status;
+    private String nomeArquivo;
+    private boolean ignorarInvalidas;
+    private long bytesTotal;
+    private long bytesProcessados;
+    private long linhasProcessadas;
+    private long linhasRejeitadas;
+    private double linhasPorSegundo;
+    private Long etaSegundos;
+    private String erro;
+    private LocalDateTime criadoEm;
+    private LocalDateTime iniciadoEm;
+    private LocalDateTime concluidoEm;
+
+    public static ImportacaoDto of(Importacao importacao, LocalDateTime agora) {
+        ImportacaoDto dto = new ImportacaoDto();
+        dto.setId(importacao.getId());
+        dto.setStatus(importacao.getStatus());
+        dto.setNomeArquivo(importacao.getNomeArquivo());
+        dto.setIgnorarInvalidas(importacao.isIgnorarInvalidas());
+        dto.setBytesTotal(importacao.getBytesTotal());
+        dto.setBytesProcessados(importacao.getByteOffset());
+        dto.setLinhasProcessadas(importacao.getLinhasProcessadas());
+        dto.setLinhasRejeitadas(importacao.getLinhasRejeitadas());
+        dto.setErro(importacao.getErro());
+        dto.setCriadoEm(importacao.getCriadoEm());
+        dto.setIniciadoEm(importacao.getIniciadoEm());
+        dto.setConcluidoEm(importacao.getConcluidoEm());
+
+        // Ritmo da execução corrente: após uma retomada, medido a partir dela e do checkpoint de onde partiu
+        LocalDateTime inicio = importacao.getExecucaoIniciadaEm() != null
+                ? importacao.getExecucaoIniciadaEm() : importacao.getIniciadoEm();
+        if (inicio != null) {
+            LocalDateTime fim = importacao.getConcluidoEm() != null ? importacao.getConcluidoEm() : agora;
+            double segundos = Math.max(1, Duration.between(inicio, fim).toMillis()) / 1000.0;
+            dto.setLinhasPorSegundo((importacao.getLinhasProcessadas() - importacao.getExecucaoLinhas()) / segundos);
+
+            // Estimativa pelo ritmo de leitura do arquivo em bytes
+            long bytesLidos = importacao.getByteOffset() - importacao.getExecucaoByteOffset();
+            if (importacao.getStatus() == ImportacaoStatus.EM_ANDAMENTO && bytesLidos > 0) {
+                double bytesPorSegundo = bytesLidos / segundos;
+                dto.setEtaSegundos(Math.round((importacao.getBytesTotal() - importacao.getByteOffset()) / bytesPorSegundo));
+            }
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,18 @@
+package com.br.contas.apagar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LinhaRejeitada {
+    private long linha;
+    private String conteudo;
+    private String motivo;
+
+    public static LinhaRejeitada of(long linha, String[] campos, IllegalArgumentException erro) {
+        // parseLine embrulha a falha de conversão/validação; o motivo útil é o da causa
+        String motivo = erro.getCause() != null ? erro.getCause().getMessage() : erro.getMessage();
+        return new LinhaRejeitada(linha, String.join(",", campos), motivo);
+    }
+}
@@ -0,0 +1,38 @@
+package com.br.contas.apagar.dto;
+
+import com.br.contas.apagar.domain.Conta;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Resultado de um item de uma operação em lote: indice é a posição no array enviado (criação), id a conta afetada
+@Data
+@AllArgsConstructor
+public class ResultadoLote {
+    public enum Status { CRIADA, INVALIDA, ENCONTRADA, NAO_ENCONTRADA, ATUALIZADA }
+
+    private Integer indice;
+    private Long id;
+    private Status status;
+    private String erro;
+    private Conta conta;
+
+    public static ResultadoLote criada(int indice, Conta conta) {
+        return new ResultadoLote(indice, conta.getId(), Status.CRIADA, null, null);
+    }
+
+    public static ResultadoLote invalida(int indice, String erro) {
+        return new ResultadoLote(indice, null, Status.INVALIDA, erro, null);
+    }
+
+    public static ResultadoLote encontrada(Conta conta) {
+        return new ResultadoLote(null, conta.getId(), Status.ENCONTRADA, null, conta);
+    }
+
+    public static ResultadoLote naoEncontrada(Long id) {
+        return new ResultadoLote(null, id, Status.NAO_ENCONTRADA, "Conta não encontrada", null);
+    }
+
+    public static ResultadoLote atualizada(Long id) {
+        return new ResultadoLote(null, id, Status.ATUALIZADA, null, null);
+    }
+}
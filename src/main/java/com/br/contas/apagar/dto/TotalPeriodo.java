@@ -0,0 +1,16 @@
+package com.br.contas.apagar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class TotalPeriodo {
+    private LocalDate inicio;
+    private LocalDate fim;
+    private BigDecimal total;
+    private long quantidade;
+}
@@ -0,0 +1,137 @@
+package com.br.contas.apagar.repository;
+
+import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import io.r2dbc.spi.Readable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Leituras de contas via R2DBC (API v2), sem thread bloqueada esperando o banco. Os filtros e a ordenação
+// são os mesmos de ContaRepositoryImpl.findByFilters; as gravações continuam pelo caminho JPA
+@Repository
+public class ContaReativaRepository {
+    private static final String COLUNAS = "id, data_vencimento, data_pagamento, valor, descricao, situacao, version";
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final DatabaseClient databaseClient;
+
+    public ContaReativaRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Page<Conta>> findByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao,
+                                           Pageable pageable) {
+        Filtro filtro = new Filtro(startDate, endDate, descricao, situacao);
+        Mono<List<Conta>> pagina = filtro.bind(databaseClient.sql("SELECT " + COLUNAS + " FROM contas" + filtro.where()
+                        + " ORDER BY data_vencimento, descricao, id LIMIT :limite OFFSET :deslocamento"))
+                .bind("limite", pageable.getPageSize())
+                .bind("deslocamento", pageable.getOffset())
+                .map(ContaReativaRepository::toConta)
+                .all()
+                .collectList();
+
+        // Como em PageableExecutionUtils: o COUNT só é executado quando o total não pode ser deduzido da página
+        return pagina.flatMap(contas -> {
+            if ((!contas.isEmpty() && contas.size() < pageable.getPageSize()) || (pageable.getOffset() == 0 && contas.isEmpty())) {
+                return Mono.just(new PageImpl<>(contas, pageable, pageable.getOffset() + contas.size()));
+            }
+            return count(filtro).map(total -> new PageImpl<>(contas, pageable, total));
+        });
+    }
+
+    // Todas as contas do filtro, lidas do banco em blocos conforme o consumidor pede (backpressure)
+    public Flux<Conta> streamByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao) {
+        Filtro filtro = new Filtro(startDate, endDate, descricao, situacao);
+        return filtro.bind(databaseClient.sql("SELECT " + COLUNAS + " FROM contas" + filtro.where()
+                        + " ORDER BY data_vencimento, descricao, id")
+                        .filter((statement, next) -> next.execute(statement.fetchSize(STREAM_FETCH_SIZE))))
+                .map(ContaReativaRepository::toConta)
+                .all();
+    }
+
+    public Mono<Conta> findById(Long id) {
+        // Como em ContaRepository.findDtoById: o vencimento de contas_localizacao restringe a busca a uma partição
+        return databaseClient.sql("SELECT " + COLUNAS + " FROM contas WHERE id = :id"
+                        + " AND data_vencimento = (SELECT data_vencimento FROM contas_localizacao WHERE id = :id)")
+                .bind("id", id)
+                .map(ContaReativaRepository::toConta)
+                .one();
+    }
+
+    // Mesma soma de ContaRepository.getTotalPaidByPeriod, lida da tabela diária mantida pelos gatilhos
+    public Mono<Optional<BigDecimal>> getTotalPaidByPeriod(LocalDate startDate, LocalDate endDate) {
+        return databaseClient.sql("SELECT SUM(valor_total) AS total FROM contas_pagas_diario"
+                        + " WHERE data_pagamento BETWEEN :startDate AND :endDate")
+                .bind("startDate", startDate)
+                .bind("endDate", endDate)
+                .map(row -> Optional.ofNullable(row.get("total", BigDecimal.class)))
+                .one();
+    }
+
+    private Mono<Long> count(Filtro filtro) {
+        return filtro.bind(databaseClient.sql("SELECT COUNT(*) AS total FROM contas" + filtro.where()))
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    private static Conta toConta(Readable row) {
+        Conta conta = new Conta();
+        conta.setId(row.get("id", Long.class));
+        conta.setDataVencimento(row.get("data_vencimento", LocalDate.class));
+        conta.setDataPagamento(row.get("data_pagamento", LocalDate.class));
+        conta.setValor(row.get("valor", BigDecimal.class));
+        conta.setDescricao(row.get("descricao", String.class));
+        conta.setSituacao(SituacaoConta.fromCodigo(row.get("situacao", Short.class)));
+        conta.setVersion(row.get("version", Long.class));
+        return conta;
+    }
+
+    private static class Filtro {
+        private final List<String> condicoes = new ArrayList<>();
+        private final Map<String, Object> parametros = new LinkedHashMap<>();
+
+        Filtro(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao) {
+            if (situacao != null) {
+                // Código como literal, como em ContaRepositoryImpl.buildPredicates: com parâmetro o planejador não usa
+                // os índices parciais de PENDENTE e VENCIDA
+                condicoes.add("situacao = " + situacao.getCodigo());
+            }
+            if (startDate != null) {
+                condicoes.add("data_vencimento >= :startDate");
+                parametros.put("startDate", startDate);
+            }
+            if (endDate != null) {
+                condicoes.add("data_vencimento <= :endDate");
+                parametros.put("endDate", endDate);
+            }
+            if (descricao != null && !descricao.isEmpty()) {
+                condicoes.add("descricao ILIKE :descricao ESCAPE '\\'");
+                parametros.put("descricao", "%" + ContaRepositoryImpl.escapeLike(descricao) + "%");
+            }
+        }
+
+        String where() {
+            return condicoes.isEmpty() ? "" : " WHERE " + String.join(" AND ", condicoes);
+        }
+
+        DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+            for (Map.Entry<String, Object> parametro : parametros.entrySet()) {
+                spec = spec.bind(parametro.getKey(), parametro.getValue());
+            }
+            return spec;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.br.contas.apagar.repository;
 
 import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.ContaPagaDiario;
+import com.br.contas.apagar.dto.ContaDto;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,11 +10,54 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ContaRepository extends JpaRepository<Conta, Long>, ContaRepositoryCustom  {
+    @Query(value = "SELECT c FROM Conta c WHERE c.dataVencimento BETWEEN :startDate AND :endDate " +
+            "AND c.descricao ILIKE CONCAT('%', :descricao, '%')",
+            countQuery = "SELECT COUNT(c) FROM Conta c WHERE c.dataVencimento BETWEEN :startDate AND :endDate " +
+                    "AND c.descricao ILIKE CONCAT('%', :descricao, '%')")
     Page<Conta> findByDataVencimentoBetweenAndDescricaoContainingIgnoreCase(
-            LocalDate startDate, LocalDate endDate, String descricao, Pageable pageable);
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+            @Param("descricao") String descricao, Pageable pageable);
 
-    @Query("SELECT SUM(c.valor) FROM Conta c WHERE c.dataPagamento BETWEEN :startDate AND :endDate")
+    // As buscas pelo id informam também o vencimento, lido de contas_localizacao, para que o planejador leia
+    // uma única partição em vez do índice de todas
+    @Query("SELECT new com.br.contas.apagar.dto.ContaDto(c.id, c.dataVencimento, c.dataPagamento, c.valor, c.descricao, c.situacao, c.version) " +
+            "FROM Conta c WHERE c.id = :id " +
+            "AND c.dataVencimento = (SELECT l.dataVencimento FROM ContaLocalizacao l WHERE l.id = :id)")
+    Optional<ContaDto> findDtoById(@Param("id") Long id);
+
+    @Query("SELECT c.version FROM Conta c WHERE c.id = :id " +
+            "AND c.dataVencimento = (SELECT l.dataVencimento FROM ContaLocalizacao l WHERE l.id = :id)")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT c FROM ContaLocalizacao l JOIN Conta c ON c.id = l.id AND c.dataVencimento = l.dataVencimento " +
+            "WHERE l.id IN :ids")
+    List<Conta> findAllLocalizadasById(@Param("ids") Collection<Long> ids);
+
+    // Totais lidos da tabela diária (contas_pagas_diario), mantida por gatilhos em contas
+    @Query("SELECT SUM(d.valorTotal) FROM ContaPagaDiario d WHERE d.dataPagamento BETWEEN :startDate AND :endDate")
     BigDecimal getTotalPaidByPeriod(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+
+    @Query("SELECT d FROM ContaPagaDiario d WHERE d.dataPagamento BETWEEN :startDate AND :endDate ORDER BY d.dataPagamento")
+    List<ContaPagaDiario> findDailyTotalsPaid(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Recalcula a tabela diária a partir de contas; retorna o número de dias com pagamento
+    @Query(value = "SELECT contas_pagas_diario_reconstruir()", nativeQuery = true)
+    long rebuildDailyTotalsPaid();
+
+    // Cria as partições mensais de contas do mês corrente até "mesesAFrente" meses adiante; retorna quantas foram criadas
+    @Query(value = "SELECT contas_criar_particoes(:mesesAFrente)", nativeQuery = true)
+    int createPartitionsAhead(@Param("mesesAFrente") int mesesAFrente);
+
+    // Move para o schema contas_arquivo as partições anteriores à retenção sem contas em aberto; retorna quantas foram arquivadas
+    @Query(value = "SELECT contas_arquivar_particoes(:mesesRetencao)", nativeQuery = true)
+    int archivePartitions(@Param("mesesRetencao") int mesesRetencao);
+
+    // Apaga os registros de contas_removidas mais antigos que "diasRetencao" dias; retorna quantos foram apagados
+    @Query(value = "SELECT contas_expurgar_removidas(:diasRetencao)", nativeQuery = true)
+    int purgeRemovedBefore(@Param("diasRetencao") int diasRetencao);
+}
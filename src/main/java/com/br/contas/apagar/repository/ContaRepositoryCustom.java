@@ -1,10 +1,53 @@
 package com.br.contas.apagar.repository;
 
 import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.dto.ContaAlteracao;
+import com.br.contas.apagar.dto.ContaAlterada;
+import com.br.contas.apagar.dto.ContaAtualizada;
+import com.br.contas.apagar.dto.ContaCursor;
+import com.br.contas.apagar.dto.ContaDto;
+import com.br.contas.apagar.dto.ContaVersao;
+import com.br.contas.apagar.dto.CursorSincronizacao;
+import com.br.contas.apagar.dto.FaixaAtraso;
+import com.br.contas.apagar.dto.TotalPeriodo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ContaRepositoryCustom {
-    Page<Conta> findByFilters(LocalDate startDate, LocalDate endDate, String descricao, Pageable pageable);
-}
\ No newline at end of file
+    Page<ContaDto> findByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao, Pageable pageable);
+
+    Page<ContaVersao> findVersionsByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao, Pageable pageable);
+
+    Stream<Conta> streamByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao);
+
+    Slice<ContaDto> findSliceByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao, Pageable pageable);
+
+    void persistBatch(List<Conta> contas);
+
+    Optional<ContaAtualizada> updateById(Long id, Long expectedVersion, Map<String, Object> valores);
+
+    List<ContaAlterada> updateSituacaoByIds(List<Long> ids, SituacaoConta situacao, LocalDate dataPagamento);
+
+    List<ContaAlterada> updateSituacaoByFilters(LocalDate startDate, LocalDate endDate, String descricao,
+                                                SituacaoConta situacao, LocalDate dataPagamento);
+
+    int markOverdue(LocalDate dataBase, int limit);
+
+    List<ContaDto> findByFiltersAfter(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao,
+                                      ContaCursor cursor, int limit);
+
+    List<ContaDto> searchByDescricaoRelevance(String termo, int limite);
+
+    List<ContaAlteracao> findChangesAfter(CursorSincronizacao cursor, int limit);
+
+    List<FaixaAtraso> findOverdueAging(LocalDate dataBase);
+
+    List<TotalPeriodo> findProjectedOutflow(LocalDate startDate, LocalDate endDate, int diasPorPeriodo);
+}
@@ -2,36 +2,482 @@ package com.br.contas.apagar.repository;
 
 
 import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.dto.ContaAlteracao;
+import com.br.contas.apagar.dto.ContaAlterada;
+import com.br.contas.apagar.dto.ContaAtualizada;
+import com.br.contas.apagar.dto.ContaCursor;
+import com.br.contas.apagar.dto.ContaDto;
+import com.br.contas.apagar.dto.ContaVersao;
+import com.br.contas.apagar.dto.CursorSincronizacao;
+import com.br.contas.apagar.dto.FaixaAtraso;
+import com.br.contas.apagar.dto.TotalPeriodo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Repository
 public class ContaRepositoryImpl implements ContaRepositoryCustom {
+    private static final int STREAM_FETCH_SIZE = 1000;
+    // Contas em aberto (pendentes ou vencidas); os códigos vão no texto do SQL para que o planejador
+    // use os índices parciais de cada situação (um BitmapOr), o que não acontece com parâmetros ou IN
+    private static final String CONTAS_EM_ABERTO = "(situacao = " + SituacaoConta.PENDENTE.getCodigo()
+            + " OR situacao = " + SituacaoConta.VENCIDA.getCodigo() + ")";
+
+    // Colunas que updateById pode alterar, pelo nome do atributo de Conta
+    private static final Map<String, String> COLUNAS_ALTERAVEIS = Map.of(
+            "dataVencimento", "data_vencimento",
+            "dataPagamento", "data_pagamento",
+            "valor", "valor",
+            "descricao", "descricao",
+            "situacao", "situacao");
 
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
-    public Page<Conta> findByFilters(LocalDate startDate, LocalDate endDate, String descricao, Pageable pageable) {
+    public Page<ContaDto> findByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao, Pageable pageable) {
+        TypedQuery<ContaDto> query = createDtoFilterQuery(startDate, endDate, descricao, situacao);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        List<ContaDto> result = timed("findByFilters", "pagina", query::getResultList);
+
+        // O COUNT só é executado quando não é possível deduzir o total pela própria página
+        return PageableExecutionUtils.getPage(result, pageable,
+                () -> timed("findByFilters", "contagem", () -> countByFilters(startDate, endDate, descricao, situacao)));
+    }
+
+    @Override
+    public Page<ContaVersao> findVersionsByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao, Pageable pageable) {
+        // Mesma consulta de findByFilters, projetando apenas id e versão (sem montar as entidades)
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ContaVersao> cq = cb.createQuery(ContaVersao.class);
+        Root<Conta> contaRoot = cq.from(Conta.class);
+
+        cq.select(cb.construct(ContaVersao.class, contaRoot.get("id"), contaRoot.get("version")));
+        cq.where(buildPredicates(cb, contaRoot, startDate, endDate, descricao, situacao));
+        cq.orderBy(filterOrder(cb, contaRoot));
+
+        TypedQuery<ContaVersao> query = entityManager.createQuery(cq)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        List<ContaVersao> result = timed("findVersionsByFilters", "pagina", query::getResultList);
+
+        return PageableExecutionUtils.getPage(result, pageable,
+                () -> timed("findVersionsByFilters", "contagem", () -> countByFilters(startDate, endDate, descricao, situacao)));
+    }
+
+    @Override
+    public Stream<Conta> streamByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao) {
+        // Cursor no servidor: o driver busca STREAM_FETCH_SIZE linhas por vez (exige transação aberta no PostgreSQL)
+        // e cada conta é desanexada após lida, então a memória não cresce com o tamanho do resultado
+        return createFilterQuery(startDate, endDate, descricao, situacao)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    @Override
+    public Slice<ContaDto> findSliceByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao, Pageable pageable) {
+        TypedQuery<ContaDto> query = createDtoFilterQuery(startDate, endDate, descricao, situacao);
+        query.setFirstResult((int) pageable.getOffset());
+        // Busca um registro a mais apenas para saber se existe uma próxima página, sem COUNT
+        query.setMaxResults(pageable.getPageSize() + 1);
+
+        List<ContaDto> result = query.getResultList();
+        boolean hasNext = result.size() > pageable.getPageSize();
+        if (hasNext) {
+            result = result.subList(0, pageable.getPageSize());
+        }
+
+        return new SliceImpl<>(result, pageable, hasNext);
+    }
+
+    @Override
+    @Transactional
+    public void persistBatch(List<Conta> contas) {
+        for (Conta conta : contas) {
+            entityManager.persist(conta);
+        }
+        // Envia o lote ao banco e libera as entidades para manter o contexto de persistência pequeno
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Um único UPDATE condicional: altera só as colunas informadas e incrementa a versão se a conta ainda estiver
+    // na versão esperada (null aceita qualquer versão). Vazio quando a conta não existe ou já mudou de versão
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<ContaAtualizada> updateById(Long id, Long expectedVersion, Map<String, Object> valores) {
+        StringBuilder sql = new StringBuilder("UPDATE contas c SET version = c.version + 1");
+        for (String atributo : valores.keySet()) {
+            String coluna = COLUNAS_ALTERAVEIS.get(atributo);
+            if (coluna == null) {
+                throw new IllegalArgumentException("Atributo não pode ser alterado: " + atributo);
+            }
+            sql.append(", ").append(coluna).append(" = :").append(atributo);
+        }
+        // O vencimento lido de contas_localizacao restringe as duas leituras de contas à partição da conta
+        sql.append(" FROM (SELECT id, data_vencimento, data_pagamento FROM contas WHERE id = :id")
+                .append(" AND data_vencimento = (SELECT data_vencimento FROM contas_localizacao WHERE id = :id) FOR UPDATE) anterior")
+                .append(" WHERE c.id = anterior.id AND c.data_vencimento = anterior.data_vencimento");
+        if (expectedVersion != null) {
+            sql.append(" AND c.version = :version");
+        }
+        sql.append(" RETURNING c.id AS id, c.data_vencimento AS data_vencimento, c.data_pagamento AS data_pagamento,"
+                + " c.valor AS valor, c.descricao AS descricao, c.situacao AS situacao, c.version AS version,"
+                + " anterior.data_pagamento AS anterior");
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql.toString()).unwrap(NativeQuery.class);
+        query.addScalar("id", Long.class).addScalar("data_vencimento", LocalDate.class)
+                .addScalar("data_pagamento", LocalDate.class).addScalar("valor", BigDecimal.class)
+                .addScalar("descricao", String.class).addScalar("situacao", Short.class)
+                .addScalar("version", Long.class).addScalar("anterior", LocalDate.class);
+        query.setParameter("id", id);
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        valores.forEach((atributo, valor) -> {
+            if (valor instanceof SituacaoConta situacao) {
+                query.setParameter(atributo, situacao.getCodigo());
+            } else if (valor == null) {
+                // Sem valor não há como inferir o tipo do parâmetro; só data_pagamento aceita null
+                query.setParameter(atributo, null, LocalDate.class);
+            } else {
+                query.setParameter(atributo, valor);
+            }
+        });
+
+        return query.getResultList().stream().findFirst().map(row -> {
+            Conta conta = new Conta();
+            conta.setId((Long) row[0]);
+            conta.setDataVencimento((LocalDate) row[1]);
+            conta.setDataPagamento((LocalDate) row[2]);
+            conta.setValor((BigDecimal) row[3]);
+            conta.setDescricao((String) row[4]);
+            conta.setSituacao(SituacaoConta.fromCodigo((Short) row[5]));
+            conta.setVersion((Long) row[6]);
+            return new ContaAtualizada(conta, (LocalDate) row[7]);
+        });
+    }
+
+    @Override
+    public List<ContaAlterada> updateSituacaoByIds(List<Long> ids, SituacaoConta situacao, LocalDate dataPagamento) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("ids", ids);
+        // Pelos pares (id, vencimento) de contas_localizacao, cada conta é buscada só na sua partição
+        return updateSituacao("(id, data_vencimento) IN (SELECT id, data_vencimento FROM contas_localizacao WHERE id IN (:ids))",
+                parameters, situacao, dataPagamento);
+    }
+
+    @Override
+    public List<ContaAlterada> updateSituacaoByFilters(LocalDate startDate, LocalDate endDate, String descricao,
+                                                       SituacaoConta situacao, LocalDate dataPagamento) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (startDate != null) {
+            conditions.add("data_vencimento >= :startDate");
+            parameters.put("startDate", startDate);
+        }
+        if (endDate != null) {
+            conditions.add("data_vencimento <= :endDate");
+            parameters.put("endDate", endDate);
+        }
+        if (descricao != null && !descricao.isEmpty()) {
+            conditions.add("descricao ILIKE :descricao ESCAPE '\\'");
+            parameters.put("descricao", "%" + escapeLike(descricao) + "%");
+        }
+        return updateSituacao(String.join(" AND ", conditions), parameters, situacao, dataPagamento);
+    }
+
+    // Um único UPDATE para todas as contas: bloqueia as linhas em ordem de id (evita deadlock entre lotes
+    // concorrentes), incrementa a versão e devolve a data de pagamento anterior para invalidar os totais afetados
+    @SuppressWarnings("unchecked")
+    private List<ContaAlterada> updateSituacao(String condition, Map<String, Object> parameters,
+                                               SituacaoConta situacao, LocalDate dataPagamento) {
+        String sql = "UPDATE contas c SET situacao = :situacao, version = c.version + 1"
+                + (dataPagamento != null ? ", data_pagamento = :dataPagamento" : "")
+                + " FROM (SELECT id, data_vencimento, data_pagamento FROM contas WHERE " + condition + " ORDER BY id FOR UPDATE) anterior"
+                + " WHERE c.id = anterior.id AND c.data_vencimento = anterior.data_vencimento"
+                + " RETURNING c.id AS id, anterior.data_pagamento AS anterior, c.data_pagamento AS atual";
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addScalar("id", Long.class).addScalar("anterior", LocalDate.class).addScalar("atual", LocalDate.class);
+        query.setParameter("situacao", situacao.getCodigo());
+        if (dataPagamento != null) {
+            query.setParameter("dataPagamento", dataPagamento);
+        }
+        parameters.forEach(query::setParameter);
+
+        return query.getResultList().stream()
+                .map(row -> new ContaAlterada((Long) row[0], (LocalDate) row[1], (LocalDate) row[2]))
+                .toList();
+    }
+
+    // Marca como VENCIDA um lote de contas pendentes com vencimento anterior a "dataBase". O lote é reservado pelo
+    // índice parcial das pendentes, em ordem de vencimento, com FOR UPDATE SKIP LOCKED: instâncias simultâneas reservam
+    // lotes diferentes e não esperam por linhas bloqueadas em outras transações (ficam para o próximo lote).
+    // O UPDATE localiza as contas pelos ids e pela faixa de vencimento do lote, o que restringe a busca às partições
+    // do lote; uma junção com o lote levaria o planejador a ler todas as partições
+    static final String MARK_OVERDUE_SQL = "WITH lote AS (SELECT id, data_vencimento FROM contas"
+            + " WHERE situacao = " + SituacaoConta.PENDENTE.getCodigo() + " AND data_vencimento < :dataBase"
+            + " ORDER BY data_vencimento LIMIT :limite FOR UPDATE SKIP LOCKED)"
+            + " UPDATE contas SET situacao = " + SituacaoConta.VENCIDA.getCodigo() + ", version = version + 1"
+            + " WHERE id = ANY(ARRAY(SELECT id FROM lote))"
+            + " AND data_vencimento BETWEEN (SELECT min(data_vencimento) FROM lote) AND (SELECT max(data_vencimento) FROM lote)";
+
+    @Override
+    public int markOverdue(LocalDate dataBase, int limit) {
+        return entityManager.createNativeQuery(MARK_OVERDUE_SQL)
+                .setParameter("dataBase", dataBase)
+                .setParameter("limite", limit)
+                .executeUpdate();
+    }
+
+    // Contas gravadas e removidas depois do cursor, na ordem (transacao, id). Só entram transações abaixo do xmin
+    // do snapshot (todas já terminadas), para que uma transação ainda aberta não fique para trás do cursor.
+    // Cada lado lê no máximo "limit" linhas pelo índice (transacao, id): o custo acompanha o volume de alterações
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ContaAlteracao> findChangesAfter(CursorSincronizacao cursor, int limit) {
+        String posterior = " WHERE (transacao, id) > (CAST(CAST(:transacao AS text) AS xid8), :id)"
+                + " AND transacao < pg_snapshot_xmin(pg_current_snapshot()) ORDER BY transacao, id LIMIT :limite";
+        String sql = "SELECT CAST(CAST(transacao AS text) AS bigint) AS transacao, id, removida, data_vencimento,"
+                + " data_pagamento, valor, descricao, situacao, version FROM ("
+                + "(SELECT transacao, id, false AS removida, data_vencimento, data_pagamento, valor, descricao, situacao, version"
+                + " FROM contas" + posterior + ")"
+                + " UNION ALL"
+                + " (SELECT transacao, id, true, NULL, NULL, NULL, NULL, NULL, NULL FROM contas_removidas" + posterior + ")"
+                + ") alteracoes ORDER BY alteracoes.transacao, id LIMIT :limite";
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addScalar("transacao", Long.class).addScalar("id", Long.class).addScalar("removida", Boolean.class)
+                .addScalar("data_vencimento", LocalDate.class).addScalar("data_pagamento", LocalDate.class)
+                .addScalar("valor", BigDecimal.class).addScalar("descricao", String.class)
+                .addScalar("situacao", Short.class).addScalar("version", Long.class);
+        query.setParameter("transacao", cursor.getTransacao());
+        query.setParameter("id", cursor.getId());
+        query.setParameter("limite", limit);
+
+        return query.getResultList().stream()
+                .map(row -> {
+                    boolean removida = (Boolean) row[2];
+                    ContaDto conta = removida ? null : new ContaDto((Long) row[1], (LocalDate) row[3], (LocalDate) row[4],
+                            (BigDecimal) row[5], (String) row[6], SituacaoConta.fromCodigo((Short) row[7]), (Long) row[8]);
+                    return new ContaAlteracao((Long) row[0], (Long) row[1], removida, conta);
+                })
+                .toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<FaixaAtraso> findOverdueAging(LocalDate dataBase) {
+        // Um único GROUP BY sobre as contas em aberto vencidas antes da data base (a que vence no dia ainda não está
+        // em atraso); as faixas sem contas voltam zeradas
+        String sql = "SELECT f.faixa, f.minimo, f.maximo, COALESCE(a.total, 0) AS total, COALESCE(a.quantidade, 0) AS quantidade"
+                + " FROM (VALUES ('1-30', 1, 30), ('31-60', 31, 60), ('61-90', 61, 90), ('90+', 91, NULL))"
+                + " AS f (faixa, minimo, maximo)"
+                + " LEFT JOIN (SELECT CASE WHEN CAST(:dataBase AS date) - data_vencimento <= 30 THEN 1"
+                + " WHEN CAST(:dataBase AS date) - data_vencimento <= 60 THEN 31"
+                + " WHEN CAST(:dataBase AS date) - data_vencimento <= 90 THEN 61 ELSE 91 END AS minimo,"
+                + " SUM(valor) AS total, COUNT(*) AS quantidade"
+                + " FROM contas WHERE " + CONTAS_EM_ABERTO + " AND data_vencimento < CAST(:dataBase AS date)"
+                + " GROUP BY 1) a ON a.minimo = f.minimo"
+                + " ORDER BY f.minimo";
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addScalar("faixa", String.class).addScalar("minimo", Integer.class).addScalar("maximo", Integer.class)
+                .addScalar("total", BigDecimal.class).addScalar("quantidade", Long.class);
+        query.setParameter("dataBase", dataBase);
+
+        return query.getResultList().stream()
+                .map(row -> new FaixaAtraso((String) row[0], (Integer) row[1], (Integer) row[2], (BigDecimal) row[3], (Long) row[4]))
+                .toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TotalPeriodo> findProjectedOutflow(LocalDate startDate, LocalDate endDate, int diasPorPeriodo) {
+        // As contas em aberto do intervalo são agrupadas em uma passada pelo período a que pertencem;
+        // o generate_series inclui os períodos sem vencimentos
+        String sql = "WITH totais AS (SELECT CAST(:inicio AS date)"
+                + " + (data_vencimento - CAST(:inicio AS date)) / :dias * :dias AS inicio,"
+                + " SUM(valor) AS total, COUNT(*) AS quantidade"
+                + " FROM contas WHERE " + CONTAS_EM_ABERTO
+                + " AND data_vencimento BETWEEN CAST(:inicio AS date) AND CAST(:fim AS date)"
+                + " GROUP BY 1)"
+                + " SELECT p.inicio, LEAST(p.inicio + :dias - 1, CAST(:fim AS date)) AS fim,"
+                + " COALESCE(t.total, 0) AS total, COALESCE(t.quantidade, 0) AS quantidade"
+                + " FROM (SELECT CAST(d AS date) AS inicio FROM generate_series(CAST(:inicio AS timestamp),"
+                + " CAST(:fim AS timestamp), make_interval(days => :dias)) AS d) p"
+                + " LEFT JOIN totais t ON t.inicio = p.inicio"
+                + " ORDER BY p.inicio";
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addScalar("inicio", LocalDate.class).addScalar("fim", LocalDate.class)
+                .addScalar("total", BigDecimal.class).addScalar("quantidade", Long.class);
+        query.setParameter("inicio", startDate);
+        query.setParameter("fim", endDate);
+        query.setParameter("dias", diasPorPeriodo);
+
+        return query.getResultList().stream()
+                .map(row -> new TotalPeriodo((LocalDate) row[0], (LocalDate) row[1], (BigDecimal) row[2], (Long) row[3]))
+                .toList();
+    }
+
+    @Override
+    public List<ContaDto> findByFiltersAfter(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao,
+                                             ContaCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ContaDto> cq = cb.createQuery(ContaDto.class);
+        Root<Conta> contaRoot = cq.from(Conta.class);
+
+        cq.select(cb.construct(ContaDto.class, contaRoot.get("id"), contaRoot.get("dataVencimento"), contaRoot.get("dataPagamento"),
+                contaRoot.get("valor"), contaRoot.get("descricao"), contaRoot.get("situacao"), contaRoot.get("version")));
+        Predicate filters = buildPredicates(cb, contaRoot, startDate, endDate, descricao, situacao);
+        if (cursor != null) {
+            filters = cb.and(filters, buildSeekPredicate(cb, contaRoot, cursor));
+        }
+        cq.where(filters);
+
+        cq.orderBy(cb.asc(contaRoot.get("dataVencimento")), cb.asc(contaRoot.get("descricao")), cb.asc(contaRoot.get("id")));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ContaDto> searchByDescricaoRelevance(String termo, int limite) {
+        // Contas cuja descrição contém palavras semelhantes ao termo (pg_trgm), das mais para as menos relevantes
+        String sql = "SELECT id, data_vencimento, data_pagamento, valor, descricao, situacao, version FROM contas"
+                + " WHERE :termo <% descricao ORDER BY word_similarity(:termo, descricao) DESC, id LIMIT :limite";
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addScalar("id", Long.class).addScalar("data_vencimento", LocalDate.class)
+                .addScalar("data_pagamento", LocalDate.class).addScalar("valor", BigDecimal.class)
+                .addScalar("descricao", String.class).addScalar("situacao", Short.class).addScalar("version", Long.class);
+        query.setParameter("termo", termo);
+        query.setParameter("limite", limite);
+
+        return query.getResultList().stream()
+                .map(row -> new ContaDto((Long) row[0], (LocalDate) row[1], (LocalDate) row[2], (BigDecimal) row[3],
+                        (String) row[4], SituacaoConta.fromCodigo((Short) row[5]), (Long) row[6]))
+                .toList();
+    }
+
+    private Predicate buildSeekPredicate(CriteriaBuilder cb, Root<Conta> contaRoot, ContaCursor cursor) {
+        // (data_vencimento, descricao, id) > (cursor); o primeiro termo delimita o início da varredura no índice
+        return cb.and(
+                cb.greaterThanOrEqualTo(contaRoot.get("dataVencimento"), cursor.getDataVencimento()),
+                cb.or(
+                        cb.greaterThan(contaRoot.get("dataVencimento"), cursor.getDataVencimento()),
+                        cb.and(
+                                cb.equal(contaRoot.get("dataVencimento"), cursor.getDataVencimento()),
+                                cb.or(
+                                        cb.greaterThan(contaRoot.get("descricao"), cursor.getDescricao()),
+                                        cb.and(
+                                                cb.equal(contaRoot.get("descricao"), cursor.getDescricao()),
+                                                cb.greaterThan(contaRoot.get("id"), cursor.getId()))))));
+    }
+
+    private TypedQuery<Conta> createFilterQuery(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Conta> cq = cb.createQuery(Conta.class);
         Root<Conta> contaRoot = cq.from(Conta.class);
 
+        cq.where(buildPredicates(cb, contaRoot, startDate, endDate, descricao, situacao));
+
+        cq.orderBy(filterOrder(cb, contaRoot));
+
+        return entityManager.createQuery(cq);
+    }
+
+    // Mesma consulta de createFilterQuery projetada em ContaDto: as linhas viram DTOs direto, sem entidades
+    // gerenciadas nem as cópias guardadas pelo Hibernate para a verificação de alterações
+    private TypedQuery<ContaDto> createDtoFilterQuery(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ContaDto> cq = cb.createQuery(ContaDto.class);
+        Root<Conta> contaRoot = cq.from(Conta.class);
+
+        cq.select(cb.construct(ContaDto.class, contaRoot.get("id"), contaRoot.get("dataVencimento"), contaRoot.get("dataPagamento"),
+                contaRoot.get("valor"), contaRoot.get("descricao"), contaRoot.get("situacao"), contaRoot.get("version")));
+        cq.where(buildPredicates(cb, contaRoot, startDate, endDate, descricao, situacao));
+        cq.orderBy(filterOrder(cb, contaRoot));
+
+        return entityManager.createQuery(cq);
+    }
+
+    // O id desempata contas com o mesmo vencimento e descrição, para que a mesma página sempre traga as mesmas contas
+    private static List<Order> filterOrder(CriteriaBuilder cb, Root<Conta> contaRoot) {
+        return List.of(cb.asc(contaRoot.get("dataVencimento")), cb.asc(contaRoot.get("descricao")), cb.asc(contaRoot.get("id")));
+    }
+
+    // A métrica spring.data.repository.invocations mede a chamada inteira; aqui a página e o COUNT são medidos separadamente
+    private <T> T timed(String consulta, String etapa, Supplier<T> execucao) {
+        return Timer.builder("contas.consulta.filtros")
+                .description("Tempo das consultas filtradas de contas, por etapa (página ou contagem)")
+                .tag("consulta", consulta)
+                .tag("etapa", etapa)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(execucao);
+    }
+
+    private long countByFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Conta> contaRoot = cq.from(Conta.class);
+
+        cq.select(cb.count(contaRoot));
+        cq.where(buildPredicates(cb, contaRoot, startDate, endDate, descricao, situacao));
+
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    private Predicate buildPredicates(CriteriaBuilder cb, Root<Conta> contaRoot,
+                                      LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao) {
         List<Predicate> predicates = new ArrayList<>();
 
+        if (situacao != null) {
+            // O código vai como literal no SQL (não como parâmetro), como em CONTAS_EM_ABERTO: só assim o planejador
+            // usa o índice parcial de PENDENTE ou VENCIDA também quando o plano da consulta preparada é genérico
+            predicates.add(cb.equal(contaRoot.get("situacao"), cb.literal(situacao)));
+        }
+
         if (startDate != null) {
             predicates.add(cb.greaterThanOrEqualTo(contaRoot.get("dataVencimento"), startDate));
         }
@@ -41,20 +487,14 @@ public class ContaRepositoryImpl implements ContaRepositoryCustom {
         }
 
         if (descricao != null && !descricao.isEmpty()) {
-            predicates.add(cb.like(cb.lower(contaRoot.get("descricao")), "%" + descricao.toLowerCase() + "%"));
+            // ILIKE direto na coluna para que o planner use o índice de trigramas (lower(descricao) não o utiliza)
+            predicates.add(((HibernateCriteriaBuilder) cb).ilike(contaRoot.get("descricao"), "%" + escapeLike(descricao) + "%", '\\'));
         }
 
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-
-        cq.orderBy(cb.asc(contaRoot.get("dataVencimento")), cb.asc(contaRoot.get("descricao")));
-
-        TypedQuery<Conta> query = entityManager.createQuery(cq);
-        long total = query.getResultList().size();
-        query.setFirstResult((int) pageable.getOffset());
-        query.setMaxResults(pageable.getPageSize());
-
-        List<Conta> result = query.getResultList();
+        return cb.and(predicates.toArray(new Predicate[0]));
+    }
 
-        return new PageImpl<>(result, pageable, total);
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.br.contas.apagar.repository;
+
+import com.br.contas.apagar.domain.Importacao;
+import com.br.contas.apagar.domain.ImportacaoStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImportacaoRepository extends JpaRepository<Importacao, Long> {
+    List<Importacao> findByNoExecucaoAndStatusIn(String noExecucao, Collection<ImportacaoStatus> status);
+
+    @Modifying
+    @Query("UPDATE Importacao i SET i.byteOffset = :byteOffset, i.linhasProcessadas = i.linhasProcessadas + :linhas, " +
+            "i.linhasRejeitadas = i.linhasRejeitadas + :rejeitadas, i.rejeicoesOffset = :rejeicoesOffset WHERE i.id = :id")
+    void saveCheckpoint(@Param("id") Long id, @Param("byteOffset") long byteOffset,
+                        @Param("linhas") long linhas, @Param("rejeitadas") long rejeitadas,
+                        @Param("rejeicoesOffset") long rejeicoesOffset);
+}
@@ -0,0 +1,293 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.dto.ImportReport;
+import com.br.contas.apagar.dto.LinhaRejeitada;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Component
+public class ContaCopyImporter {
+    private static final Logger log = LoggerFactory.getLogger(ContaCopyImporter.class);
+
+    private static final String COPY_SQL =
+            "COPY contas (id, data_vencimento, data_pagamento, valor, descricao, situacao) FROM STDIN WITH (FORMAT csv)";
+    private static final String RESERVE_IDS_SQL = "SELECT nextval('contas_id_seq') FROM generate_series(1, ?)";
+    private static final int BATCH_LINES = 1000;
+    // Ids reservados por COPY: com o tamanho padrão dos blocos da importação assíncrona, um COPY por bloco
+    private static final int IDS_PER_COPY = 50_000;
+
+    private final DataSource dataSource;
+    private final int parserThreads;
+    private final int queueCapacity;
+    private volatile Boolean supported;
+
+    public ContaCopyImporter(DataSource dataSource,
+                             @Value("${contas.import.copy.parser-threads:0}") int parserThreads,
+                             @Value("${contas.import.copy.queue-capacity:0}") int queueCapacity) {
+        this.dataSource = dataSource;
+        this.parserThreads = parserThreads > 0 ? parserThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.queueCapacity = queueCapacity > 0 ? queueCapacity : this.parserThreads * 2;
+    }
+
+    public boolean isSupported() {
+        if (supported == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                supported = connection.isWrapperFor(PGConnection.class);
+            } catch (SQLException e) {
+                log.warn("Não foi possível verificar o suporte a COPY no datasource: {}", e.getMessage());
+                return false;
+            }
+        }
+        return supported;
+    }
+
+    public ImportReport importCsv(Reader source, Function<String[], Conta> lineParser, long firstLineNumber,
+                                  Consumer<LinhaRejeitada> rejections) throws IOException {
+        long start = System.nanoTime();
+        // Participa da transação corrente quando houver (ex.: bloco de uma importação assíncrona com checkpoint)
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, parserThreadFactory());
+        boolean ownTransaction = false;
+        try (CSVReader reader = new CSVReader(source)) {
+            // Fora de uma transação os vários COPY (ver CopyWriter) são agrupados numa só, para que a carga continue atômica
+            ownTransaction = connection.getAutoCommit() && !DataSourceUtils.isConnectionTransactional(connection, dataSource);
+            if (ownTransaction) {
+                connection.setAutoCommit(false);
+            }
+            CopyWriter copy = new CopyWriter(connection, rejections);
+            try {
+                // Cada bloco é convertido e validado em paralelo; a fila limitada de blocos pendentes
+                // segura a leitura quando o COPY não acompanha e preserva a ordem das linhas
+                List<String[]> batch = new ArrayList<>(BATCH_LINES);
+                long lineNumber = firstLineNumber;
+                String[] line;
+                while ((line = reader.readNext()) != null) {
+                    batch.add(line);
+                    if (batch.size() == BATCH_LINES) {
+                        copy.add(parsers.submit(encodeTask(batch, copy.nextIds(batch.size()), lineNumber, lineParser, rejections != null)));
+                        lineNumber += batch.size();
+                        batch = new ArrayList<>(BATCH_LINES);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    copy.add(parsers.submit(encodeTask(batch, copy.nextIds(batch.size()), lineNumber, lineParser, rejections != null)));
+                }
+
+                long imported = copy.finish();
+                if (!connection.getAutoCommit() && !DataSourceUtils.isConnectionTransactional(connection, dataSource)) {
+                    connection.commit();
+                }
+                return ImportReport.of("copy", imported, copy.rejected, start);
+            } finally {
+                copy.cancel();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao gravar as contas via COPY", e);
+        } catch (CsvValidationException e) {
+            throw new RuntimeException(e);
+        } finally {
+            parsers.shutdownNow();
+            if (ownTransaction) {
+                restoreAutoCommit(connection);
+            }
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static void restoreAutoCommit(Connection connection) {
+        try {
+            // setAutoCommit(true) confirmaria o que ficou pendente: numa falha a carga é desfeita antes
+            connection.rollback();
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            log.warn("Não foi possível restaurar o autocommit da conexão do COPY: {}", e.getMessage());
+        }
+    }
+
+    // Grava os blocos convertidos na ordem em que foram lidos. Enquanto um COPY está aberto a conexão não aceita outros
+    // comandos, então os ids são reservados na mesma conexão antes de cada COPY, IDS_PER_COPY de cada vez; quando
+    // acabam, o COPY corrente é encerrado e outro começa, na mesma transação. Assim a importação usa uma única
+    // conexão do pool, sem disputar com outras importações por uma segunda conexão a cada bloco
+    private class CopyWriter {
+        private final Connection connection;
+        private final Consumer<LinhaRejeitada> rejections;
+        private final Deque<Future<EncodedBlock>> pending = new ArrayDeque<>(queueCapacity);
+        private CopyIn copyIn;
+        private long[] ids = new long[0];
+        private int nextId;
+        private long imported;
+        private long rejected;
+
+        CopyWriter(Connection connection, Consumer<LinhaRejeitada> rejections) {
+            this.connection = connection;
+            this.rejections = rejections;
+        }
+
+        long[] nextIds(int count) throws SQLException {
+            if (nextId + count > ids.length) {
+                endCopy();
+                ids = reserveIds(connection, Math.max(IDS_PER_COPY, count));
+                nextId = 0;
+                copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            }
+            long[] block = Arrays.copyOfRange(ids, nextId, nextId + count);
+            nextId += count;
+            return block;
+        }
+
+        void add(Future<EncodedBlock> encoded) throws SQLException {
+            pending.add(encoded);
+            if (pending.size() >= queueCapacity) {
+                write(pending.poll());
+            }
+        }
+
+        long finish() throws SQLException {
+            endCopy();
+            return imported;
+        }
+
+        void cancel() throws SQLException {
+            if (copyIn != null && copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+
+        private void endCopy() throws SQLException {
+            while (!pending.isEmpty()) {
+                write(pending.poll());
+            }
+            if (copyIn != null) {
+                imported += copyIn.endCopy();
+                copyIn = null;
+            }
+        }
+
+        private void write(Future<EncodedBlock> encoded) throws SQLException {
+            try {
+                EncodedBlock block = encoded.get();
+                copyIn.writeToCopy(block.rows(), 0, block.rows().length);
+                // As rejeições são repassadas aqui, na thread que grava, para manter a ordem das linhas
+                if (!block.rejected().isEmpty()) {
+                    block.rejected().forEach(rejections);
+                }
+                rejected += block.rejected().size();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Importação interrompida", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    // Reserva ids da mesma forma que o otimizador pooled do Hibernate (cada nextval devolve o topo de um bloco),
+    // em vez de deixar o DEFAULT nextval da coluna consumir um bloco inteiro por linha
+    static long[] reserveIds(Connection connection, int count) throws SQLException {
+        long[] ids = new long[count];
+        int filled = 0;
+        try (PreparedStatement statement = connection.prepareStatement(RESERVE_IDS_SQL)) {
+            while (filled < count) {
+                statement.setInt(1, (count - filled + Conta.ID_ALLOCATION_SIZE - 1) / Conta.ID_ALLOCATION_SIZE);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next() && filled < count) {
+                        long hi = resultSet.getLong(1);
+                        // Como no PooledOptimizer: um valor até o incremento é o valor inicial da sequence (1 numa
+                        // sequence nova), não o topo de um bloco; dele só se usa o próprio valor
+                        long lo = hi <= Conta.ID_ALLOCATION_SIZE ? hi : hi - Conta.ID_ALLOCATION_SIZE + 1;
+                        for (long id = lo; id <= hi && filled < count; id++) {
+                            ids[filled++] = id;
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Callable<EncodedBlock> encodeTask(List<String[]> lines, long[] ids, long firstLineNumber,
+                                              Function<String[], Conta> lineParser, boolean skipInvalid) {
+        return () -> {
+            StringBuilder rows = new StringBuilder(lines.size() * 64);
+            List<LinhaRejeitada> rejected = new ArrayList<>();
+            long lineNumber = firstLineNumber;
+            int nextId = 0;
+            for (String[] line : lines) {
+                try {
+                    Conta conta = lineParser.apply(line);
+                    conta.setId(ids[nextId++]);
+                    appendCsvRow(rows, conta);
+                } catch (IllegalArgumentException e) {
+                    if (!skipInvalid) {
+                        throw new IllegalArgumentException("Linha " + lineNumber + ": " + e.getMessage(), e);
+                    }
+                    rejected.add(LinhaRejeitada.of(lineNumber, line, e));
+                }
+                lineNumber++;
+            }
+            return new EncodedBlock(rows.toString().getBytes(StandardCharsets.UTF_8), rejected);
+        };
+    }
+
+    private record EncodedBlock(byte[] rows, List<LinhaRejeitada> rejected) {
+    }
+
+    static void appendCsvRow(StringBuilder rows, Conta conta) {
+        rows.append(conta.getId()).append(',');
+        rows.append(conta.getDataVencimento()).append(',');
+        if (conta.getDataPagamento() != null) {
+            rows.append(conta.getDataPagamento());
+        }
+        rows.append(',').append(conta.getValor().toPlainString()).append(',');
+        appendQuoted(rows, conta.getDescricao());
+        rows.append(',').append(conta.getSituacao().getCodigo());
+        rows.append('\n');
+    }
+
+    private static void appendQuoted(StringBuilder rows, String value) {
+        rows.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static ThreadFactory parserThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "contas-copy-parser-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
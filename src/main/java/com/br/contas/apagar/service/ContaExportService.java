@@ -0,0 +1,74 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.repository.ContaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.opencsv.CSVWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ContaExportService {
+    private final ContaRepository contaRepository;
+    private final ObjectMapper objectMapper;
+
+    // Mesmo layout de 5 colunas aceito pela importação CSV, para que a exportação possa ser reimportada
+    @Transactional(readOnly = true)
+    public long exportCsv(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao,
+                          OutputStream out) throws IOException {
+        long linhas = 0;
+        try (Stream<Conta> contas = contaRepository.streamByFilters(startDate, endDate, descricao, situacao)) {
+            CSVWriter writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024));
+            Iterator<Conta> iterator = contas.iterator();
+            while (iterator.hasNext()) {
+                Conta conta = iterator.next();
+                writer.writeNext(new String[]{
+                        conta.getDataVencimento().toString(),
+                        conta.getDataPagamento() != null ? conta.getDataPagamento().toString() : "",
+                        conta.getValor().toPlainString(),
+                        conta.getDescricao(),
+                        conta.getSituacao().name()
+                });
+                linhas++;
+            }
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Erro ao gravar a exportação CSV");
+            }
+        }
+        return linhas;
+    }
+
+    // Uma conta por linha, no mesmo formato JSON da API
+    @Transactional(readOnly = true)
+    public long exportNdjson(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao,
+                             OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Conta.class);
+        OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        long linhas = 0;
+        try (Stream<Conta> contas = contaRepository.streamByFilters(startDate, endDate, descricao, situacao)) {
+            Iterator<Conta> iterator = contas.iterator();
+            while (iterator.hasNext()) {
+                buffered.write(writer.writeValueAsBytes(iterator.next()));
+                buffered.write('\n');
+                linhas++;
+            }
+            buffered.flush();
+        }
+        return linhas;
+    }
+}
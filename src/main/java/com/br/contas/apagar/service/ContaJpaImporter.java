@@ -0,0 +1,67 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.dto.ImportReport;
+import com.br.contas.apagar.dto.LinhaRejeitada;
+import com.br.contas.apagar.repository.ContaRepository;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+public class ContaJpaImporter {
+    // Múltiplo do hibernate.jdbc.batch_size: cada bloco é enviado em lotes JDBC e o contexto é limpo em seguida
+    static final int CHUNK_SIZE = 500;
+
+    private final ContaRepository contaRepository;
+
+    @Transactional
+    public ImportReport importCsv(Reader source, Function<String[], Conta> lineParser, long firstLineNumber,
+                                  Consumer<LinhaRejeitada> rejections) throws IOException {
+        long start = System.nanoTime();
+        long imported = 0;
+        long rejected = 0;
+
+        try (CSVReader reader = new CSVReader(source)) {
+            List<Conta> chunk = new ArrayList<>(CHUNK_SIZE);
+            long lineNumber = firstLineNumber;
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                try {
+                    chunk.add(lineParser.apply(line));
+                } catch (IllegalArgumentException e) {
+                    // Sem destino para as rejeições a importação é tudo-ou-nada: a primeira linha inválida interrompe
+                    if (rejections == null) {
+                        throw e;
+                    }
+                    rejections.accept(LinhaRejeitada.of(lineNumber, line, e));
+                    rejected++;
+                }
+                lineNumber++;
+                if (chunk.size() == CHUNK_SIZE) {
+                    contaRepository.persistBatch(chunk);
+                    imported += chunk.size();
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                contaRepository.persistBatch(chunk);
+                imported += chunk.size();
+            }
+        } catch (CsvValidationException e) {
+            throw new RuntimeException(e);
+        }
+
+        return ImportReport.of("jpa", imported, rejected, start);
+    }
+}
@@ -0,0 +1,54 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.repository.ContaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Manutenção das partições mensais de contas: cria as dos próximos meses antes que sejam necessárias
+// e arquiva as antigas já quitadas, para que consultas, vacuum e índices trabalhem só com os meses ativos
+@Service
+public class ContaParticaoService {
+    private static final Logger log = LoggerFactory.getLogger(ContaParticaoService.class);
+
+    private final ContaRepository contaRepository;
+    private final int mesesAFrente;
+    private final boolean arquivamentoHabilitado;
+    private final int mesesRetencao;
+
+    public ContaParticaoService(ContaRepository contaRepository,
+                                @Value("${contas.particoes.meses-a-frente:12}") int mesesAFrente,
+                                @Value("${contas.particoes.arquivamento.habilitado:true}") boolean arquivamentoHabilitado,
+                                @Value("${contas.particoes.arquivamento.meses-retencao:24}") int mesesRetencao) {
+        if (mesesAFrente < 0 || mesesRetencao < 1) {
+            throw new IllegalArgumentException("Configuração de partições inválida: meses-a-frente deve ser >= 0 e meses-retencao >= 1.");
+        }
+        this.contaRepository = contaRepository;
+        this.mesesAFrente = mesesAFrente;
+        this.arquivamentoHabilitado = arquivamentoHabilitado;
+        this.mesesRetencao = mesesRetencao;
+    }
+
+    // Executada na subida da aplicação e diariamente; as funções do banco usam um advisory lock,
+    // então várias instâncias podem agendá-la sem conflito
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${contas.particoes.cron:0 0 3 * * *}")
+    @Transactional
+    public void maintainPartitions() {
+        int criadas = contaRepository.createPartitionsAhead(mesesAFrente);
+        if (criadas > 0) {
+            log.info("{} partição(ões) de contas criada(s)", criadas);
+        }
+        if (arquivamentoHabilitado) {
+            int arquivadas = contaRepository.archivePartitions(mesesRetencao);
+            if (arquivadas > 0) {
+                log.info("{} partição(ões) de contas arquivada(s) no schema contas_arquivo", arquivadas);
+            }
+        }
+    }
+}
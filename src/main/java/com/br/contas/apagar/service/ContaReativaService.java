@@ -0,0 +1,52 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.repository.ContaReativaRepository;
+import com.br.contas.apagar.util.DateUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+// Leituras da API v2 (R2DBC); mesmas regras de ContaService para filtros e totais
+@Service
+@RequiredArgsConstructor
+public class ContaReativaService {
+    private final ContaReativaRepository contaReativaRepository;
+
+    public Mono<Page<Conta>> getAllWithFilters(LocalDate startDate, LocalDate endDate, String descricao,
+                                               SituacaoConta situacao, Pageable pageable) {
+        return contaReativaRepository.findByFilters(startDate, endDate, descricao, situacao, pageable);
+    }
+
+    public Flux<Conta> streamWithFilters(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao) {
+        return contaReativaRepository.streamByFilters(startDate, endDate, descricao, situacao);
+    }
+
+    public Mono<Conta> getById(Long id) {
+        return contaReativaRepository.findById(id);
+    }
+
+    public Mono<Optional<BigDecimal>> getTotalPaidByPeriod(String startDate, String endDate) {
+        LocalDate parsedStartDate;
+        LocalDate parsedEndDate;
+        try {
+            parsedStartDate = DateUtils.parseDate(startDate);
+            parsedEndDate = DateUtils.parseDate(endDate);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+
+        if (parsedStartDate.isAfter(parsedEndDate)) {
+            return Mono.error(new IllegalArgumentException("A data de início não pode ser posterior à data de fim."));
+        }
+        return contaReativaRepository.getTotalPaidByPeriod(parsedStartDate, parsedEndDate);
+    }
+}
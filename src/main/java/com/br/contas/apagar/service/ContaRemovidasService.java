@@ -0,0 +1,41 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.repository.ContaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Expurgo de contas_removidas: sem ele a tabela cresce a cada remoção. Os registros mais antigos que a retenção
+// são apagados, então um cursor de sincronização mais antigo que ela pode não receber essas remoções
+@Service
+public class ContaRemovidasService {
+    private static final Logger log = LoggerFactory.getLogger(ContaRemovidasService.class);
+
+    private final ContaRepository contaRepository;
+    private final int diasRetencao;
+
+    public ContaRemovidasService(ContaRepository contaRepository,
+                                 @Value("${contas.sincronizacao.removidas.dias-retencao:30}") int diasRetencao) {
+        if (diasRetencao < 1) {
+            throw new IllegalArgumentException("Configuração de contas removidas inválida: dias-retencao deve ser >= 1.");
+        }
+        this.contaRepository = contaRepository;
+        this.diasRetencao = diasRetencao;
+    }
+
+    // Executada na subida da aplicação e diariamente, como a manutenção das partições
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${contas.sincronizacao.removidas.cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeRemoved() {
+        int apagadas = contaRepository.purgeRemovedBefore(diasRetencao);
+        if (apagadas > 0) {
+            log.info("{} registro(s) de contas removidas com mais de {} dias apagado(s)", apagadas, diasRetencao);
+        }
+    }
+}
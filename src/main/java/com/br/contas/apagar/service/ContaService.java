@@ -1,124 +1,516 @@
 package com.br.contas.apagar.service;
 
 import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.ContaPagaDiario;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.dto.AlteracaoSituacaoLote;
+import com.br.contas.apagar.dto.ContaAlteracao;
+import com.br.contas.apagar.dto.ContaAlterada;
+import com.br.contas.apagar.dto.ContaAtualizada;
+import com.br.contas.apagar.dto.ContaCursor;
+import com.br.contas.apagar.dto.ContaCursorPage;
+import com.br.contas.apagar.dto.ContaDto;
+import com.br.contas.apagar.dto.ContaRequest;
+import com.br.contas.apagar.dto.ContaSincronizacao;
+import com.br.contas.apagar.dto.ContaVersao;
+import com.br.contas.apagar.dto.CursorSincronizacao;
+import com.br.contas.apagar.dto.FaixaAtraso;
+import com.br.contas.apagar.dto.ImportReport;
+import com.br.contas.apagar.dto.LinhaRejeitada;
+import com.br.contas.apagar.dto.ResultadoLote;
+import com.br.contas.apagar.dto.TotalPagoCacheStats;
+import com.br.contas.apagar.dto.TotalPeriodo;
 import com.br.contas.apagar.repository.ContaRepository;
 import com.br.contas.apagar.util.DateUtils;
 import com.br.contas.apagar.util.ValidationUtils;
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvValidationException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ContaService {
+    private static final Logger log = LoggerFactory.getLogger(ContaService.class);
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_TOTAL_PERIODS = 120;
+    private static final int MAX_BULK_SIZE = 10000;
+    private static final int MAX_PROJECTION_DAYS = 366;
+    private static final int MAX_SYNC_BATCH_SIZE = 5000;
+
     private final ContaRepository contaRepository;
+    private final ContaCopyImporter copyImporter;
+    private final ContaJpaImporter jpaImporter;
+    private final TotalPagoCache totalPagoCache;
+    private final MeterRegistry meterRegistry;
 
+    @Transactional
     public Conta save(Conta conta) {
         validateConta(conta);
 
-        return contaRepository.save(conta);
+        // Só cria contas: id e versão do corpo são ignorados (alterações passam por update/updateById, com a versão esperada)
+        conta.setId(null);
+        conta.setVersion(null);
+        Conta saved = contaRepository.save(conta);
+        totalPagoCache.invalidate(saved.getDataPagamento());
+        return saved;
     }
 
-    public Conta update(Long id, Conta conta) {
-        Conta existing = contaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Conta não encontrada"));
-
+    @Transactional
+    public Conta update(Long id, Conta conta, Long expectedVersion) {
         validateConta(conta);
 
-        existing.setDescricao(conta.getDescricao());
-        existing.setDataVencimento(conta.getDataVencimento());
-        existing.setDataPagamento(conta.getDataPagamento());
-        existing.setValor(conta.getValor());
-        existing.setSituacao(conta.getSituacao());
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put("descricao", conta.getDescricao());
+        valores.put("dataVencimento", conta.getDataVencimento());
+        valores.put("dataPagamento", conta.getDataPagamento());
+        valores.put("valor", conta.getValor());
+        valores.put("situacao", conta.getSituacao());
+        // A versão do If-Match prevalece sobre a versão enviada no corpo
+        return updateById(id, expectedVersion != null ? expectedVersion : conta.getVersion(), valores);
+    }
+
+    @Transactional
+    public Conta updatePartial(Long id, ContaRequest alteracoes, Long expectedVersion) {
+        // Só os campos informados são alterados
+        Map<String, Object> valores = new LinkedHashMap<>();
+        if (alteracoes.getDescricao() != null) {
+            if (alteracoes.getDescricao().isEmpty()) {
+                throw new IllegalArgumentException("O campo 'Descrição' não pode ser vazio.");
+            }
+            valores.put("descricao", alteracoes.getDescricao());
+        }
+        if (alteracoes.getDataVencimento() != null) {
+            valores.put("dataVencimento", alteracoes.getDataVencimento());
+        }
+        if (alteracoes.getDataPagamento() != null) {
+            valores.put("dataPagamento", alteracoes.getDataPagamento());
+        }
+        if (alteracoes.getValor() != null) {
+            if (alteracoes.getValor().compareTo(BigDecimal.ZERO) <= 0 || !ValidationUtils.isValidAmount(alteracoes.getValor())) {
+                throw new IllegalArgumentException("O campo 'Valor' deve ser maior que zero.");
+            }
+            valores.put("valor", alteracoes.getValor());
+        }
+        if (alteracoes.getSituacao() != null) {
+            valores.put("situacao", alteracoes.getSituacao());
+        }
+        if (valores.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo a alterar.");
+        }
+        return updateById(id, expectedVersion, valores);
+    }
+
+    // Um único UPDATE ... RETURNING em vez de findById + save; retorna null quando a conta não existe
+    // e lança OptimisticLockingFailureException quando ela já não está na versão esperada
+    private Conta updateById(Long id, Long expectedVersion, Map<String, Object> valores) {
+        Optional<ContaAtualizada> atualizada = contaRepository.updateById(id, expectedVersion, valores);
+        if (atualizada.isEmpty()) {
+            // A consulta da versão só acontece na falha, para distinguir a conta inexistente da alterada por outra requisição
+            Optional<Long> versaoAtual = contaRepository.findVersionById(id);
+            if (versaoAtual.isPresent()) {
+                throw new OptimisticLockingFailureException("A conta " + id + " está na versão " + versaoAtual.get()
+                        + ", não na versão " + expectedVersion + ".");
+            }
+            return null;
+        }
+
+        Conta conta = atualizada.get().getConta();
+        totalPagoCache.invalidate(atualizada.get().getDataPagamentoAnterior(), conta.getDataPagamento());
+        return conta;
+    }
+
+    @Transactional
+    public List<ResultadoLote> saveAll(List<Conta> contas) {
+        checkBulkSize(contas.size());
+
+        // Contas inválidas são reportadas no resultado; as demais são gravadas em lotes JDBC na mesma transação
+        ResultadoLote[] resultados = new ResultadoLote[contas.size()];
+        List<Conta> chunk = new ArrayList<>(ContaJpaImporter.CHUNK_SIZE);
+        List<Integer> indices = new ArrayList<>(ContaJpaImporter.CHUNK_SIZE);
+        Set<LocalDate> datasPagamento = new HashSet<>();
+        for (int i = 0; i < contas.size(); i++) {
+            Conta conta = contas.get(i);
+            try {
+                validateConta(conta);
+            } catch (IllegalArgumentException e) {
+                resultados[i] = ResultadoLote.invalida(i, e.getMessage());
+                continue;
+            }
+            conta.setId(null);
+            conta.setVersion(null);
+            chunk.add(conta);
+            indices.add(i);
+            if (conta.getDataPagamento() != null) {
+                datasPagamento.add(conta.getDataPagamento());
+            }
+            if (chunk.size() == ContaJpaImporter.CHUNK_SIZE) {
+                persistChunk(chunk, indices, resultados);
+            }
+        }
+        persistChunk(chunk, indices, resultados);
+
+        totalPagoCache.invalidate(datasPagamento);
+        return Arrays.asList(resultados);
+    }
+
+    private void persistChunk(List<Conta> chunk, List<Integer> indices, ResultadoLote[] resultados) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        contaRepository.persistBatch(new ArrayList<>(chunk));
+        for (int j = 0; j < chunk.size(); j++) {
+            resultados[indices.get(j)] = ResultadoLote.criada(indices.get(j), chunk.get(j));
+        }
+        chunk.clear();
+        indices.clear();
+    }
+
+    public List<ResultadoLote> getAllByIds(List<Long> ids) {
+        checkBulkSize(ids.size());
 
-        return contaRepository.save(existing);
+        // Uma única consulta IN, que lê cada conta só na sua partição; o resultado segue a ordem dos ids pedidos
+        Map<Long, Conta> contas = new HashMap<>();
+        for (Conta conta : contaRepository.findAllLocalizadasById(ids)) {
+            contas.put(conta.getId(), conta);
+        }
+        return ids.stream()
+                .map(id -> contas.containsKey(id) ? ResultadoLote.encontrada(contas.get(id)) : ResultadoLote.naoEncontrada(id))
+                .toList();
     }
 
-    public Page<Conta> getAllWithFilters(LocalDate startDate, LocalDate endDate, String descricao, Pageable pageable) {
-        System.out.println("Descricao: " + descricao);
+    @Transactional
+    public List<ResultadoLote> updateSituacaoInBulk(AlteracaoSituacaoLote alteracao) {
+        if (alteracao.getSituacao() == null) {
+            throw new IllegalArgumentException("O campo 'Situação' é obrigatório.");
+        }
+        boolean porIds = alteracao.getIds() != null && !alteracao.getIds().isEmpty();
+        boolean porFiltro = alteracao.getStartDate() != null || alteracao.getEndDate() != null
+                || (alteracao.getDescricao() != null && !alteracao.getDescricao().isEmpty());
+        if (porIds == porFiltro) {
+            throw new IllegalArgumentException("Informe os ids ou ao menos um filtro, mas não ambos.");
+        }
+
+        List<ContaAlterada> alteradas;
+        if (porIds) {
+            checkBulkSize(alteracao.getIds().size());
+            alteradas = contaRepository.updateSituacaoByIds(alteracao.getIds(), alteracao.getSituacao(), alteracao.getDataPagamento());
+        } else {
+            alteradas = contaRepository.updateSituacaoByFilters(alteracao.getStartDate(), alteracao.getEndDate(),
+                    alteracao.getDescricao(), alteracao.getSituacao(), alteracao.getDataPagamento());
+        }
+
+        Set<LocalDate> datasPagamento = new HashSet<>();
+        for (ContaAlterada alterada : alteradas) {
+            datasPagamento.add(alterada.getDataPagamentoAnterior());
+            datasPagamento.add(alterada.getDataPagamento());
+        }
+        datasPagamento.remove(null);
+        totalPagoCache.invalidate(datasPagamento);
+
+        if (!porIds) {
+            return alteradas.stream().map(alterada -> ResultadoLote.atualizada(alterada.getId())).toList();
+        }
+        Set<Long> ids = alteradas.stream().map(ContaAlterada::getId).collect(Collectors.toSet());
+        return alteracao.getIds().stream()
+                .map(id -> ids.contains(id) ? ResultadoLote.atualizada(id) : ResultadoLote.naoEncontrada(id))
+                .toList();
+    }
+
+    private static void checkBulkSize(int size) {
+        if (size == 0 || size > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("O lote deve conter entre 1 e " + MAX_BULK_SIZE + " itens.");
+        }
+    }
+
+    // Leituras em transações somente leitura: o Hibernate não faz flush nem guarda cópias para a verificação de alterações
+    @Transactional(readOnly = true)
+    public Page<ContaDto> getAllWithFilters(LocalDate startDate, LocalDate endDate, String descricao,
+                                            SituacaoConta situacao, Pageable pageable) {
+        log.debug("Consulta de contas: vencimento entre {} e {}, descrição '{}', situação {}", startDate, endDate, descricao, situacao);
 
         if (descricao == null || descricao.isEmpty()) {
             descricao = "";
         }
-        return contaRepository.findByFilters(startDate, endDate, descricao, pageable);
+        return contaRepository.findByFilters(startDate, endDate, descricao, situacao, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ContaVersao> getVersionsWithFilters(LocalDate startDate, LocalDate endDate, String descricao,
+                                                    SituacaoConta situacao, Pageable pageable) {
+        return contaRepository.findVersionsByFilters(startDate, endDate, descricao, situacao, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ContaDto> getSliceWithFilters(LocalDate startDate, LocalDate endDate, String descricao,
+                                               SituacaoConta situacao, Pageable pageable) {
+        return contaRepository.findSliceByFilters(startDate, endDate, descricao, situacao, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public ContaCursorPage getPageAfterCursor(LocalDate startDate, LocalDate endDate, String descricao, SituacaoConta situacao,
+                                              String cursor, int size) {
+        if (size <= 0 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_CURSOR_PAGE_SIZE + ".");
+        }
+
+        ContaCursor after = cursor == null || cursor.isEmpty() ? null : ContaCursor.decode(cursor);
+        List<ContaDto> contas = contaRepository.findByFiltersAfter(startDate, endDate, descricao, situacao, after, size + 1);
+
+        String nextCursor = null;
+        if (contas.size() > size) {
+            contas = contas.subList(0, size);
+            nextCursor = ContaCursor.of(contas.get(size - 1)).encode();
+        }
+        return new ContaCursorPage(contas, nextCursor);
     }
 
-    public Conta getById(Long id) {
-        return contaRepository.findById(id)
+    @Transactional(readOnly = true)
+    public ContaSincronizacao getChangesAfter(String cursor, int limite) {
+        if (limite <= 0 || limite > MAX_SYNC_BATCH_SIZE) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + MAX_SYNC_BATCH_SIZE + ".");
+        }
+
+        CursorSincronizacao after = cursor == null || cursor.isEmpty() ? CursorSincronizacao.INICIO : CursorSincronizacao.decode(cursor);
+        List<ContaAlteracao> alteracoes = contaRepository.findChangesAfter(after, limite + 1);
+
+        boolean temMais = alteracoes.size() > limite;
+        if (temMais) {
+            alteracoes = alteracoes.subList(0, limite);
+        }
+        // Sem alterações o cursor se mantém; o cliente repete a chamada com ele mais tarde
+        String nextCursor = alteracoes.isEmpty() ? after.encode() : CursorSincronizacao.of(alteracoes.get(alteracoes.size() - 1)).encode();
+        return new ContaSincronizacao(alteracoes, nextCursor, temMais);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ContaDto> searchByDescricao(String termo, int limite) {
+        if (termo == null || termo.isBlank()) {
+            throw new IllegalArgumentException("O termo de busca é obrigatório.");
+        }
+        if (limite <= 0 || limite > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + MAX_SEARCH_RESULTS + ".");
+        }
+        return contaRepository.searchByDescricaoRelevance(termo.trim(), limite);
+    }
+
+    @Transactional(readOnly = true)
+    public ContaDto getById(Long id) {
+        return contaRepository.findDtoById(id)
                 .orElseThrow(() -> new RuntimeException("Conta não encontrada"));
     }
 
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(Long id) {
+        return contaRepository.findVersionById(id);
+    }
+
     public BigDecimal getTotalPaidByPeriod(String startDate, String endDate) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        LocalDate parsedStartDate = LocalDate.parse(startDate, formatter);
-        LocalDate parsedEndDate = LocalDate.parse(endDate, formatter);
+        LocalDate parsedStartDate = DateUtils.parseDate(startDate);
+        LocalDate parsedEndDate = DateUtils.parseDate(endDate);
 
         if (parsedStartDate.isAfter(parsedEndDate)) {
             throw new IllegalArgumentException("A data de início não pode ser posterior à data de fim.");
         }
 
-        return contaRepository.getTotalPaidByPeriod(parsedStartDate, parsedEndDate);
+        return totalPagoCache.get(parsedStartDate, parsedEndDate,
+                () -> contaRepository.getTotalPaidByPeriod(parsedStartDate, parsedEndDate));
     }
 
-    public Conta updateSituacao(Long id, String situacao) {
-        Conta existing = contaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Conta não encontrada"));
+    public List<TotalPeriodo> getTotalPaidByPeriods(List<String> startDates, List<String> endDates) {
+        if (startDates.isEmpty() || startDates.size() != endDates.size()) {
+            throw new IllegalArgumentException("Informe a mesma quantidade de datas de início e de fim.");
+        }
+        if (startDates.size() > MAX_TOTAL_PERIODS) {
+            throw new IllegalArgumentException("Informe no máximo " + MAX_TOTAL_PERIODS + " períodos.");
+        }
 
-        existing.setSituacao(situacao);
-        return contaRepository.save(existing);
+        List<LocalDate[]> periodos = new ArrayList<>(startDates.size());
+        for (int i = 0; i < startDates.size(); i++) {
+            LocalDate inicio = DateUtils.parseDate(startDates.get(i));
+            LocalDate fim = DateUtils.parseDate(endDates.get(i));
+            if (inicio.isAfter(fim)) {
+                throw new IllegalArgumentException("A data de início não pode ser posterior à data de fim.");
+            }
+            periodos.add(new LocalDate[]{inicio, fim});
+        }
+
+        // Uma única leitura dos totais diários cobrindo todos os períodos; as somas são feitas em memória
+        LocalDate menorInicio = periodos.stream().map(p -> p[0]).min(LocalDate::compareTo).orElseThrow();
+        LocalDate maiorFim = periodos.stream().map(p -> p[1]).max(LocalDate::compareTo).orElseThrow();
+        NavigableMap<LocalDate, ContaPagaDiario> diarios = getDailyTotalsPaid(menorInicio, maiorFim);
+
+        List<TotalPeriodo> totais = new ArrayList<>(periodos.size());
+        for (LocalDate[] periodo : periodos) {
+            totais.add(sumPeriod(diarios, periodo[0], periodo[1]));
+        }
+        return totais;
     }
 
-    public void importCsv(MultipartFile file) {
-        try {
-            List<Conta> contas = parseCsv(file);
-            contaRepository.saveAll(contas);
-        } catch (IOException e) {
-            throw new RuntimeException("Erro ao processar o arquivo CSV", e);
-        }
-    }
-
-    private List<Conta> parseCsv(MultipartFile file) throws IOException {
-        List<Conta> contas = new ArrayList<>();
-        try (CSVReader reader = new CSVReader(new InputStreamReader(file.getInputStream()))) {
-            String[] line;
-            while ((line = reader.readNext()) != null) {
-                if (line.length != 5) {
-                    throw new IllegalArgumentException("Formato de CSV inválido. Cada linha deve conter 5 campos.");
-                }
-
-                Conta conta = new Conta();
-                try {
-                    conta.setDataVencimento(LocalDate.parse(line[0]));
-                    conta.setDataPagamento(LocalDate.parse(line[1]));
-                    conta.setValor(new BigDecimal(line[2]));
-                    conta.setDescricao(line[3]);
-                    conta.setSituacao(line[4]);
-
-                    validateConta(conta);
-                    contas.add(conta);
-                } catch (Exception e) {
-                    throw new IllegalArgumentException("Erro ao processar linha: " + String.join(",", line), e);
-                }
+    public List<TotalPeriodo> getTotalPaidByMonth(String startDate, String endDate) {
+        LocalDate parsedStartDate = DateUtils.parseDate(startDate);
+        LocalDate parsedEndDate = DateUtils.parseDate(endDate);
+
+        if (parsedStartDate.isAfter(parsedEndDate)) {
+            throw new IllegalArgumentException("A data de início não pode ser posterior à data de fim.");
+        }
+        if (ChronoUnit.MONTHS.between(YearMonth.from(parsedStartDate), YearMonth.from(parsedEndDate)) >= MAX_TOTAL_PERIODS) {
+            throw new IllegalArgumentException("Informe no máximo " + MAX_TOTAL_PERIODS + " meses.");
+        }
+
+        NavigableMap<LocalDate, ContaPagaDiario> diarios = getDailyTotalsPaid(parsedStartDate, parsedEndDate);
+
+        // Um total por mês, inclusive os meses sem pagamento; o primeiro e o último mês respeitam as datas informadas
+        List<TotalPeriodo> totais = new ArrayList<>();
+        for (YearMonth mes = YearMonth.from(parsedStartDate); !mes.isAfter(YearMonth.from(parsedEndDate)); mes = mes.plusMonths(1)) {
+            LocalDate inicio = mes.atDay(1).isBefore(parsedStartDate) ? parsedStartDate : mes.atDay(1);
+            LocalDate fim = mes.atEndOfMonth().isAfter(parsedEndDate) ? parsedEndDate : mes.atEndOfMonth();
+            totais.add(sumPeriod(diarios, inicio, fim));
+        }
+        return totais;
+    }
+
+    public List<FaixaAtraso> getOverdueAging(String dataBase) {
+        LocalDate parsedDataBase = dataBase == null || dataBase.isBlank() ? LocalDate.now() : DateUtils.parseDate(dataBase);
+        return contaRepository.findOverdueAging(parsedDataBase);
+    }
+
+    public List<TotalPeriodo> getProjectedOutflow(String startDate, int dias, String agrupamento) {
+        LocalDate parsedStartDate = startDate == null || startDate.isBlank() ? LocalDate.now() : DateUtils.parseDate(startDate);
+        if (dias <= 0 || dias > MAX_PROJECTION_DAYS) {
+            throw new IllegalArgumentException("O número de dias deve estar entre 1 e " + MAX_PROJECTION_DAYS + ".");
+        }
+        int diasPorPeriodo = switch (agrupamento == null ? "" : agrupamento.toLowerCase()) {
+            case "dia" -> 1;
+            case "semana" -> 7;
+            default -> throw new IllegalArgumentException("Agrupamento inválido: " + agrupamento + ". Use 'dia' ou 'semana'.");
+        };
+        return contaRepository.findProjectedOutflow(parsedStartDate, parsedStartDate.plusDays(dias - 1), diasPorPeriodo);
+    }
+
+    @Transactional
+    public long rebuildDailyTotalsPaid() {
+        long dias = contaRepository.rebuildDailyTotalsPaid();
+        totalPagoCache.invalidateAll();
+        return dias;
+    }
+
+    public TotalPagoCacheStats getTotalPaidCacheStats() {
+        return totalPagoCache.getStats();
+    }
+
+    private NavigableMap<LocalDate, ContaPagaDiario> getDailyTotalsPaid(LocalDate startDate, LocalDate endDate) {
+        NavigableMap<LocalDate, ContaPagaDiario> diarios = new TreeMap<>();
+        for (ContaPagaDiario diario : contaRepository.findDailyTotalsPaid(startDate, endDate)) {
+            diarios.put(diario.getDataPagamento(), diario);
+        }
+        return diarios;
+    }
+
+    private static TotalPeriodo sumPeriod(NavigableMap<LocalDate, ContaPagaDiario> diarios, LocalDate inicio, LocalDate fim) {
+        BigDecimal total = BigDecimal.ZERO;
+        long quantidade = 0;
+        for (ContaPagaDiario diario : diarios.subMap(inicio, true, fim, true).values()) {
+            total = total.add(diario.getValorTotal());
+            quantidade += diario.getQuantidade();
+        }
+        return new TotalPeriodo(inicio, fim, total, quantidade);
+    }
+
+    @Transactional
+    public Conta updateSituacao(Long id, String situacao, Long expectedVersion) {
+        return updateById(id, expectedVersion, Map.of("situacao", SituacaoConta.of(situacao)));
+    }
+
+    public ImportReport importCsv(Reader reader, long firstLineNumber, Consumer<LinhaRejeitada> rejections) throws IOException {
+        // Guarda os dias de pagamento importados para invalidar só os totais afetados
+        // (a conversão das linhas roda em paralelo no COPY)
+        Set<LocalDate> datasPagamento = ConcurrentHashMap.newKeySet();
+        Function<String[], Conta> parser = line -> {
+            Conta conta = parseLine(line);
+            if (conta.getDataPagamento() != null) {
+                datasPagamento.add(conta.getDataPagamento());
             }
-        } catch (CsvValidationException e) {
-            throw new RuntimeException(e);
+            return conta;
+        };
+
+        // COPY quando o datasource é PostgreSQL; nos demais bancos, inserção em lotes via JPA
+        ImportReport report = copyImporter.isSupported()
+                ? copyImporter.importCsv(reader, parser, firstLineNumber, rejections)
+                : jpaImporter.importCsv(reader, parser, firstLineNumber, rejections);
+        totalPagoCache.invalidate(datasPagamento);
+        recordImportMetrics(report);
+        return report;
+    }
+
+    // Linhas importadas e rejeitadas por motor (copy/jpa): a taxa em linhas/s sai do rate() dos contadores
+    // ou, por bloco importado, do resumo contas.importacao.taxa
+    private void recordImportMetrics(ImportReport report) {
+        meterRegistry.counter("contas.importacao.linhas", "motor", report.getEngine(), "resultado", "importada")
+                .increment(report.getImportedRows());
+        meterRegistry.counter("contas.importacao.linhas", "motor", report.getEngine(), "resultado", "rejeitada")
+                .increment(report.getRejectedRows());
+        DistributionSummary.builder("contas.importacao.taxa")
+                .description("Linhas importadas por segundo em cada bloco importado")
+                .baseUnit("linhas/s")
+                .tag("motor", report.getEngine())
+                .register(meterRegistry)
+                .record(report.getRowsPerSecond());
+    }
+
+    Conta parseLine(String[] line) {
+        if (line.length != 5) {
+            throw new IllegalArgumentException("Formato de CSV inválido. Cada linha deve conter 5 campos.");
+        }
+
+        Conta conta = new Conta();
+        try {
+            conta.setDataVencimento(LocalDate.parse(line[0]));
+            // Data de pagamento vazia = conta ainda não paga (como nas linhas geradas pela exportação)
+            conta.setDataPagamento(line[1].isEmpty() ? null : LocalDate.parse(line[1]));
+            conta.setValor(new BigDecimal(line[2]));
+            conta.setDescricao(line[3]);
+            conta.setSituacao(SituacaoConta.of(line[4]));
+
+            validateConta(conta);
+            return conta;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Erro ao processar linha: " + String.join(",", line), e);
         }
-        return contas;
     }
 
-    private void validateConta(Conta conta) {
+    void validateConta(Conta conta) {
         if (conta.getValor() == null || conta.getValor().compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("O campo 'Valor' é obrigatório e deve ser maior que zero.");
         }
@@ -131,7 +523,7 @@ public class ContaService {
             throw new IllegalArgumentException("O campo 'Descrição' é obrigatório.");
         }
 
-        if (conta.getSituacao() == null || conta.getSituacao().isEmpty()) {
+        if (conta.getSituacao() == null) {
             throw new IllegalArgumentException("O campo 'Situação' é obrigatório.");
         }
 
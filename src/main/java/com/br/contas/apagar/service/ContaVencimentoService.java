@@ -0,0 +1,70 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.repository.ContaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+// Passa para VENCIDA as contas pendentes cujo vencimento já passou, em lotes curtos (uma transação por lote).
+// Os lotes são reservados com SKIP LOCKED, então várias instâncias podem executar a tarefa ao mesmo tempo
+// sem repetir contas nem esperar umas pelas outras
+@Service
+public class ContaVencimentoService {
+    private static final Logger log = LoggerFactory.getLogger(ContaVencimentoService.class);
+
+    private final ContaRepository contaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter vencidas;
+    private final boolean habilitado;
+    private final int tamanhoLote;
+
+    public ContaVencimentoService(ContaRepository contaRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${contas.vencimento.habilitado:true}") boolean habilitado,
+                                  @Value("${contas.vencimento.tamanho-lote:1000}") int tamanhoLote) {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("Configuração de vencimento inválida: tamanho-lote deve ser >= 1.");
+        }
+        this.contaRepository = contaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.vencidas = Counter.builder("contas.vencimento.marcadas")
+                .description("Contas pendentes passadas para vencidas pela tarefa agendada")
+                .register(meterRegistry);
+        this.habilitado = habilitado;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    // Executada na subida da aplicação e a cada hora; cada lote libera seus bloqueios ao terminar, e um lote
+    // menor que o tamanho configurado indica que não restam contas livres para marcar
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${contas.vencimento.cron:0 5 * * * *}")
+    public void markOverdue() {
+        if (!habilitado) {
+            return;
+        }
+        LocalDate hoje = LocalDate.now();
+        long inicio = System.nanoTime();
+        long total = 0;
+        int marcadas;
+        do {
+            marcadas = transactionTemplate.execute(status -> contaRepository.markOverdue(hoje, tamanhoLote));
+            total += marcadas;
+            vencidas.increment(marcadas);
+        } while (marcadas == tamanhoLote);
+
+        if (total > 0) {
+            log.info("{} conta(s) marcada(s) como vencida(s) em {} ms", total, (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+}
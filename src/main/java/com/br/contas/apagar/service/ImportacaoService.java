@@ -0,0 +1,214 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.domain.Importacao;
+import com.br.contas.apagar.domain.ImportacaoStatus;
+import com.br.contas.apagar.dto.ImportReport;
+import com.br.contas.apagar.repository.ImportacaoRepository;
+import com.br.contas.apagar.util.CsvRecordReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class ImportacaoService {
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoService.class);
+
+    private final ImportacaoRepository importacaoRepository;
+    private final ContaService contaService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor importacaoExecutor;
+    private final Path spoolDir;
+    private final int segmentLines;
+    private final String nodeId;
+
+    public ImportacaoService(ImportacaoRepository importacaoRepository,
+                             ContaService contaService,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier("importacaoExecutor") TaskExecutor importacaoExecutor,
+                             @Value("${contas.import.jobs.spool-dir:${java.io.tmpdir}/contas-importacoes}") String spoolDir,
+                             @Value("${contas.import.jobs.segment-lines:50000}") int segmentLines,
+                             @Value("${contas.import.jobs.node-id:}") String nodeId) {
+        this.importacaoRepository = importacaoRepository;
+        this.contaService = contaService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importacaoExecutor = importacaoExecutor;
+        this.spoolDir = Path.of(spoolDir);
+        this.segmentLines = segmentLines;
+        this.nodeId = nodeId.isEmpty() ? localHostName() : nodeId;
+    }
+
+    public Importacao submit(MultipartFile file, boolean ignorarInvalidas) throws IOException {
+        // O upload é copiado para o disco local; a requisição termina assim que o job é enfileirado
+        Files.createDirectories(spoolDir);
+        String nome = UUID.randomUUID().toString();
+        Path arquivo = spoolDir.resolve(nome + ".csv");
+        file.transferTo(arquivo);
+
+        Importacao importacao = new Importacao();
+        importacao.setStatus(ImportacaoStatus.PENDENTE);
+        importacao.setNomeArquivo(file.getOriginalFilename());
+        importacao.setArquivo(arquivo.toAbsolutePath().toString());
+        importacao.setNoExecucao(nodeId);
+        importacao.setBytesTotal(Files.size(arquivo));
+        importacao.setIgnorarInvalidas(ignorarInvalidas);
+        if (ignorarInvalidas) {
+            importacao.setArquivoRejeicoes(spoolDir.resolve(nome + "-rejeicoes.csv").toAbsolutePath().toString());
+        }
+        importacao.setCriadoEm(LocalDateTime.now());
+        importacao = importacaoRepository.save(importacao);
+
+        try {
+            schedule(importacao.getId());
+        } catch (TaskRejectedException e) {
+            importacaoRepository.delete(importacao);
+            Files.deleteIfExists(arquivo);
+            throw e;
+        }
+        return importacao;
+    }
+
+    public Optional<Importacao> getById(Long id) {
+        return importacaoRepository.findById(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        // Retoma, a partir do último checkpoint, as importações deste nó interrompidas por uma parada da aplicação
+        for (Importacao importacao : importacaoRepository.findByNoExecucaoAndStatusIn(nodeId,
+                EnumSet.of(ImportacaoStatus.PENDENTE, ImportacaoStatus.EM_ANDAMENTO))) {
+            if (!Files.exists(Path.of(importacao.getArquivo()))) {
+                fail(importacao.getId(), "Arquivo da importação não encontrado para retomada.");
+                continue;
+            }
+            try {
+                log.info("Retomando importação {} a partir do byte {}", importacao.getId(), importacao.getByteOffset());
+                schedule(importacao.getId());
+            } catch (TaskRejectedException e) {
+                log.warn("Fila de importações cheia; importação {} permanece pendente", importacao.getId());
+            }
+        }
+    }
+
+    private void schedule(Long id) {
+        importacaoExecutor.execute(() -> run(id));
+    }
+
+    void run(Long id) {
+        Importacao importacao = importacaoRepository.findById(id).orElseThrow();
+        importacao.setStatus(ImportacaoStatus.EM_ANDAMENTO);
+        LocalDateTime agora = LocalDateTime.now();
+        if (importacao.getIniciadoEm() == null) {
+            importacao.setIniciadoEm(agora);
+        }
+        // Numa retomada, o ritmo da importação não conta o tempo parado nem as linhas importadas antes do checkpoint
+        importacao.setExecucaoIniciadaEm(agora);
+        importacao.setExecucaoByteOffset(importacao.getByteOffset());
+        importacao.setExecucaoLinhas(importacao.getLinhasProcessadas());
+        importacao = importacaoRepository.save(importacao);
+
+        Path arquivo = Path.of(importacao.getArquivo());
+        long linha = importacao.getLinhasProcessadas() + importacao.getLinhasRejeitadas() + 1;
+        try (FileChannel channel = FileChannel.open(arquivo, StandardOpenOption.READ);
+             RejeicoesArquivo rejeicoes = importacao.isIgnorarInvalidas()
+                     ? new RejeicoesArquivo(Path.of(importacao.getArquivoRejeicoes()), importacao.getRejeicoesOffset())
+                     : null) {
+            channel.position(importacao.getByteOffset());
+            CsvRecordReader reader = new CsvRecordReader(Channels.newInputStream(channel), importacao.getByteOffset());
+
+            StringBuilder segment = new StringBuilder();
+            int records = 0;
+            String record;
+            do {
+                record = reader.readRecord();
+                if (record != null) {
+                    segment.append(record);
+                    records++;
+                }
+                if (records > 0 && (records == segmentLines || record == null)) {
+                    importSegment(id, segment.toString(), reader.getOffset(), linha, rejeicoes);
+                    linha += records;
+                    segment.setLength(0);
+                    records = 0;
+                }
+            } while (record != null);
+        } catch (Exception e) {
+            log.error("Importação {} falhou: {}", id, e.getMessage(), e);
+            fail(id, e.getMessage());
+            deleteQuietly(arquivo);
+            return;
+        }
+
+        importacao = importacaoRepository.findById(id).orElseThrow();
+        importacao.setStatus(ImportacaoStatus.CONCLUIDA);
+        importacao.setConcluidoEm(LocalDateTime.now());
+        importacaoRepository.save(importacao);
+        deleteQuietly(arquivo);
+        log.info("Importação {} concluída: {} linhas", id, importacao.getLinhasProcessadas());
+    }
+
+    private void importSegment(Long id, String segment, long offset, long primeiraLinha, RejeicoesArquivo rejeicoes) {
+        // As contas do bloco e o checkpoint são gravados na mesma transação: na retomada nada é duplicado ou perdido
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    ImportReport report = contaService.importCsv(new StringReader(segment), primeiraLinha, rejeicoes);
+                    long rejeicoesOffset = rejeicoes != null ? rejeicoes.flush() : 0;
+                    importacaoRepository.saveCheckpoint(id, offset, report.getImportedRows(), report.getRejectedRows(), rejeicoesOffset);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Erro no bloco iniciado na linha " + primeiraLinha + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void fail(Long id, String erro) {
+        importacaoRepository.findById(id).ifPresent(importacao -> {
+            importacao.setStatus(ImportacaoStatus.FALHOU);
+            importacao.setErro(erro);
+            importacao.setConcluidoEm(LocalDateTime.now());
+            importacaoRepository.save(importacao);
+        });
+    }
+
+    private static void deleteQuietly(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o arquivo temporário {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.dto.LinhaRejeitada;
+import com.opencsv.CSVWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+// Arquivo CSV (linha, conteudo, motivo) com as linhas rejeitadas de uma importação, gravado em fluxo.
+// Na retomada é truncado no tamanho do último checkpoint, descartando rejeições de um bloco não confirmado.
+class RejeicoesArquivo implements Consumer<LinhaRejeitada>, Closeable {
+    private final FileChannel channel;
+    private final CSVWriter writer;
+
+    RejeicoesArquivo(Path arquivo, long offset) throws IOException {
+        channel = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(offset);
+        channel.position(offset);
+        writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8)));
+        if (offset == 0) {
+            writer.writeNext(new String[]{"linha", "conteudo", "motivo"});
+        }
+    }
+
+    @Override
+    public void accept(LinhaRejeitada rejeitada) {
+        writer.writeNext(new String[]{String.valueOf(rejeitada.getLinha()), rejeitada.getConteudo(), rejeitada.getMotivo()});
+    }
+
+    long flush() throws IOException {
+        writer.flush();
+        return channel.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,102 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.dto.TotalPagoCacheStats;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Cache em memória dos totais pagos por período; uma gravação remove apenas os períodos que contêm a data de pagamento alterada
+@Component
+public class TotalPagoCache {
+    private final Cache<Periodo, Optional<BigDecimal>> cache;
+    // Incrementada a cada invalidação; uma carga que atravessou uma invalidação não fica no cache
+    private final AtomicLong geracao = new AtomicLong();
+
+    public TotalPagoCache(@Value("${contas.cache.totais.maximum-size:10000}") long maximumSize,
+                          @Value("${contas.cache.totais.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public BigDecimal get(LocalDate startDate, LocalDate endDate, Supplier<BigDecimal> loader) {
+        Periodo chave = new Periodo(startDate, endDate);
+        long[] geracaoDaCarga = {-1};
+        // Optional porque a soma de um período sem pagamentos é nula, e o Caffeine não guarda valores nulos
+        Optional<BigDecimal> total = cache.get(chave, periodo -> {
+            geracaoDaCarga[0] = geracao.get();
+            return Optional.ofNullable(loader.get());
+        });
+        // A carga pode ter lido o total antes do commit de uma gravação cuja invalidação rodou antes de o valor
+        // entrar no cache (e não o encontrou); nesse caso o valor é devolvido, mas sai do cache
+        if (geracaoDaCarga[0] >= 0 && geracao.get() != geracaoDaCarga[0]) {
+            cache.asMap().remove(chave, total);
+        }
+        return total.orElse(null);
+    }
+
+    public void invalidate(LocalDate... datasPagamento) {
+        invalidate(Arrays.asList(datasPagamento));
+    }
+
+    public void invalidate(Collection<LocalDate> datasPagamento) {
+        List<LocalDate> datas = datasPagamento.stream().filter(Objects::nonNull).toList();
+        if (!datas.isEmpty()) {
+            afterCommit(() -> {
+                geracao.incrementAndGet();
+                cache.asMap().keySet().removeIf(periodo -> datas.stream().anyMatch(periodo::contains));
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> {
+            geracao.incrementAndGet();
+            cache.invalidateAll();
+        });
+    }
+
+    public TotalPagoCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        return new TotalPagoCacheStats(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    // Dentro de uma transação a remoção só acontece após o commit; antes disso uma leitura concorrente
+    // ainda veria e guardaria o total antigo
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Periodo(LocalDate inicio, LocalDate fim) {
+        boolean contains(LocalDate data) {
+            return !data.isBefore(inicio) && !data.isAfter(fim);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.br.contas.apagar.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+// Lê registros CSV brutos (respeitando quebras de linha entre aspas) e mantém a posição exata em bytes,
+// usada como checkpoint para retomar a leitura do arquivo
+public class CsvRecordReader implements Closeable {
+    private final InputStream in;
+    private final byte[] buffer = new byte[64 * 1024];
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+    private int position;
+    private int limit;
+    private long offset;
+
+    public CsvRecordReader(InputStream in, long offset) {
+        this.in = in;
+        this.offset = offset;
+    }
+
+    public String readRecord() throws IOException {
+        record.reset();
+        boolean quoted = false;
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return record.size() == 0 ? null : record.toString(StandardCharsets.UTF_8);
+                }
+            }
+            int start = position;
+            while (position < limit) {
+                byte b = buffer[position++];
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    record.write(buffer, start, position - start);
+                    offset += position - start;
+                    return record.toString(StandardCharsets.UTF_8);
+                }
+            }
+            record.write(buffer, start, position - start);
+            offset += position - start;
+        }
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -2,15 +2,25 @@
 
     import java.time.LocalDate;
     import java.time.format.DateTimeFormatter;
+    import java.time.format.DateTimeParseException;
 
     public class DateUtils {
+        private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
         public static String formatDate(LocalDate date) {
             if (date == null) {
                 return "";
             }
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            return date.format(formatter);
+            return date.format(DATE_FORMAT);
+        }
+
+        // Datas informadas como texto nos parâmetros dos totais e relatórios (dd/MM/yyyy)
+        public static LocalDate parseDate(String date) {
+            try {
+                return LocalDate.parse(date, DATE_FORMAT);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Data inválida: " + date + ". Use o formato dd/MM/yyyy.", e);
+            }
         }
 
         public static boolean isDateInRange(LocalDate date, LocalDate startDate, LocalDate endDate) {
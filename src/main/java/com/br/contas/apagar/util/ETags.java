@@ -0,0 +1,64 @@
+package com.br.contas.apagar.util;
+
+import com.br.contas.apagar.dto.ContaVersao;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+public class ETags {
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // ETag de uma página: muda quando o total, a ordem, a composição ou a versão de qualquer conta da página mudam
+    public static String ofPage(long totalElements, List<ContaVersao> versoes) {
+        StringBuilder content = new StringBuilder().append(totalElements);
+        for (ContaVersao versao : versoes) {
+            content.append('|').append(versao.getId()).append(':').append(versao.getVersion());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Comparação fraca, como define o If-None-Match: aceita "*", listas separadas por vírgula e o prefixo W/
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Versão esperada em um If-Match com a ETag de uma conta; null quando o cabeçalho falta ou é "*" (qualquer versão).
+    // O If-Match usa comparação forte: ETags fracas (W/) e listas não identificam uma única versão
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        try {
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            }
+        } catch (NumberFormatException e) {
+            // Cai na mensagem de If-Match inválido abaixo
+        }
+        throw new IllegalArgumentException("If-Match inválido: " + ifMatch + ". Informe a ETag da conta, ex.: \"3\".");
+    }
+}
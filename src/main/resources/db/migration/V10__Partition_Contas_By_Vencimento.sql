@@ -0,0 +1,170 @@
+-- contas passa a ser particionada por mês de data_vencimento (contas_pAAAA_MM), com uma partição padrão
+-- para datas fora dos meses criados. A chave primária precisa conter a coluna de particionamento;
+-- a unicidade do id continua garantida pela sequence contas_id_seq, única origem dos ids.
+
+ALTER TABLE contas RENAME TO contas_legado;
+ALTER TABLE contas_legado RENAME CONSTRAINT contas_pkey TO contas_legado_pkey;
+DROP TRIGGER contas_pagas_diario_insert ON contas_legado;
+DROP TRIGGER contas_pagas_diario_update ON contas_legado;
+DROP TRIGGER contas_pagas_diario_delete ON contas_legado;
+DROP TRIGGER contas_pagas_diario_truncate ON contas_legado;
+ALTER SEQUENCE contas_id_seq OWNED BY NONE;
+
+CREATE TABLE contas (
+    id BIGINT NOT NULL DEFAULT nextval('contas_id_seq'),
+    data_vencimento DATE NOT NULL,
+    data_pagamento DATE,
+    valor DECIMAL(10, 2) NOT NULL,
+    descricao VARCHAR(255) NOT NULL,
+    situacao SMALLINT NOT NULL CONSTRAINT contas_situacao_check CHECK (situacao BETWEEN 1 AND 4),
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT contas_pkey PRIMARY KEY (id, data_vencimento)
+) PARTITION BY RANGE (data_vencimento);
+
+ALTER SEQUENCE contas_id_seq OWNED BY contas.id;
+
+CREATE TABLE contas_padrao PARTITION OF contas DEFAULT;
+
+-- Cria a partição do mês de "mes"; contas desse mês já gravadas na partição padrão são movidas para ela
+CREATE FUNCTION contas_criar_particao(mes DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    inicio DATE := date_trunc('month', mes)::date;
+    fim DATE := (date_trunc('month', mes) + interval '1 month')::date;
+    nome TEXT := 'contas_p' || to_char(mes, 'YYYY_MM');
+BEGIN
+    IF to_regclass(nome) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM contas_padrao WHERE data_vencimento >= inicio AND data_vencimento < fim) THEN
+        EXECUTE format('CREATE TABLE %I (LIKE contas INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', nome);
+        EXECUTE format('WITH movidas AS (DELETE FROM contas_padrao WHERE data_vencimento >= %L AND data_vencimento < %L RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM movidas', inicio, fim, nome);
+        EXECUTE format('ALTER TABLE contas ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', nome, inicio, fim);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF contas FOR VALUES FROM (%L) TO (%L)', nome, inicio, fim);
+    END IF;
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Garante as partições do mês corrente e dos próximos meses; chamada pelo agendamento da aplicação
+CREATE FUNCTION contas_criar_particoes(meses_a_frente INT) RETURNS INT AS $$
+DECLARE
+    criadas INT := 0;
+BEGIN
+    -- Evita que duas instâncias da aplicação alterem as partições ao mesmo tempo
+    IF NOT pg_try_advisory_xact_lock(hashtext('contas_particoes')) THEN
+        RETURN 0;
+    END IF;
+    FOR i IN 0..meses_a_frente LOOP
+        IF contas_criar_particao((date_trunc('month', current_date) + make_interval(months => i))::date) THEN
+            criadas := criadas + 1;
+        END IF;
+    END LOOP;
+    RETURN criadas;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Arquivamento: partições anteriores ao período de retenção e sem contas PENDENTE (1) ou VENCIDA (3)
+-- são desanexadas de contas e movidas para o schema contas_arquivo (continuam consultáveis por SQL)
+CREATE SCHEMA contas_arquivo;
+
+CREATE FUNCTION contas_arquivar_particoes(meses_retencao INT) RETURNS INT AS $$
+DECLARE
+    limite DATE := (date_trunc('month', current_date) - make_interval(months => meses_retencao))::date;
+    particao RECORD;
+    em_aberto BOOLEAN;
+    arquivadas INT := 0;
+BEGIN
+    IF NOT pg_try_advisory_xact_lock(hashtext('contas_particoes')) THEN
+        RETURN 0;
+    END IF;
+    FOR particao IN
+        SELECT c.relname
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'contas'::regclass
+          AND c.relname ~ '^contas_p[0-9]{4}_[0-9]{2}$'
+          AND to_date(substring(c.relname FROM 9), 'YYYY_MM') < limite
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE situacao IN (1, 3))', particao.relname) INTO em_aberto;
+        IF NOT em_aberto THEN
+            EXECUTE format('ALTER TABLE contas DETACH PARTITION %I', particao.relname);
+            EXECUTE format('ALTER TABLE %I SET SCHEMA contas_arquivo', particao.relname);
+            arquivadas := arquivadas + 1;
+        END IF;
+    END LOOP;
+    RETURN arquivadas;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partições para os meses com dados, de até 5 anos para trás até 12 meses à frente, e para os próximos 12 meses;
+-- vencimentos fora desse intervalo ficam na partição padrão (contas_criar_particao os move quando o mês chegar)
+DO $$
+DECLARE
+    primeiro DATE;
+    ultimo DATE;
+    mes DATE;
+BEGIN
+    SELECT GREATEST(min(data_vencimento), (current_date - interval '5 years')::date),
+           LEAST(GREATEST(max(data_vencimento), current_date), (date_trunc('month', current_date) + interval '12 months')::date)
+    INTO primeiro, ultimo
+    FROM contas_legado;
+    mes := date_trunc('month', COALESCE(primeiro, current_date))::date;
+    WHILE mes <= COALESCE(ultimo, current_date) LOOP
+        PERFORM contas_criar_particao(mes);
+        mes := (mes + interval '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+SELECT contas_criar_particoes(12);
+
+INSERT INTO contas (id, data_vencimento, data_pagamento, valor, descricao, situacao, version)
+SELECT id, data_vencimento, data_pagamento, valor, descricao, situacao, version FROM contas_legado;
+
+DROP TABLE contas_legado;
+
+-- Índices criados na tabela particionada valem para todas as partições, inclusive as futuras
+CREATE INDEX idx_contas_vencimento_descricao_id ON contas (data_vencimento, descricao, id);
+CREATE INDEX idx_contas_descricao_trgm ON contas USING gin (descricao gin_trgm_ops);
+CREATE INDEX idx_contas_pendentes_vencimento ON contas (data_vencimento, descricao, id) WHERE situacao = 1;
+CREATE INDEX idx_contas_vencidas_vencimento ON contas (data_vencimento, descricao, id) WHERE situacao = 3;
+
+-- Os gatilhos por comando da tabela particionada recebem as linhas de todas as partições nas tabelas de transição
+CREATE TRIGGER contas_pagas_diario_insert AFTER INSERT ON contas
+    REFERENCING NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagas_diario_aplicar();
+
+CREATE TRIGGER contas_pagas_diario_update AFTER UPDATE ON contas
+    REFERENCING OLD TABLE AS antigas NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagas_diario_aplicar();
+
+CREATE TRIGGER contas_pagas_diario_delete AFTER DELETE ON contas
+    REFERENCING OLD TABLE AS antigas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagas_diario_aplicar();
+
+CREATE TRIGGER contas_pagas_diario_truncate AFTER TRUNCATE ON contas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagas_diario_truncar();
+
+-- Os totais pagos por dia continuam incluindo os meses arquivados; a reconstrução também os lê
+CREATE OR REPLACE FUNCTION contas_pagas_diario_reconstruir() RETURNS BIGINT AS $$
+DECLARE
+    origem TEXT := 'SELECT data_pagamento, valor FROM contas';
+    arquivada RECORD;
+    dias BIGINT;
+BEGIN
+    LOCK TABLE contas IN SHARE ROW EXCLUSIVE MODE;
+    FOR arquivada IN SELECT tablename FROM pg_tables WHERE schemaname = 'contas_arquivo' LOOP
+        origem := origem || format(' UNION ALL SELECT data_pagamento, valor FROM contas_arquivo.%I', arquivada.tablename);
+    END LOOP;
+
+    DELETE FROM contas_pagas_diario;
+    EXECUTE 'INSERT INTO contas_pagas_diario (data_pagamento, valor_total, quantidade) '
+            'SELECT data_pagamento, SUM(valor), COUNT(*) FROM (' || origem || ') todas '
+            'WHERE data_pagamento IS NOT NULL GROUP BY data_pagamento';
+    GET DIAGNOSTICS dias = ROW_COUNT;
+    RETURN dias;
+END;
+$$ LANGUAGE plpgsql;
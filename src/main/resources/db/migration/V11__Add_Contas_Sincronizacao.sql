@@ -0,0 +1,38 @@
+-- Sincronização incremental: cada conta guarda o id da transação (xid8) que a gravou por último. Os ids de transação
+-- só crescem e todas as transações abaixo do xmin do snapshot corrente já terminaram; lendo só até esse limite,
+-- a posição (transacao, id) é um cursor sem lacunas, o que um timestamp ou uma sequence (atribuídos antes do commit) não garantem.
+-- O DEFAULT é estável: as contas existentes recebem a transação desta migração sem reescrever as partições.
+ALTER TABLE contas ADD COLUMN transacao xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+-- Inserções (inclusive COPY) usam o DEFAULT; alterações feitas por qualquer caminho passam pelo gatilho
+CREATE FUNCTION contas_registrar_transacao() RETURNS trigger AS $$
+BEGIN
+    NEW.transacao := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER contas_transacao_update BEFORE UPDATE ON contas
+    FOR EACH ROW EXECUTE FUNCTION contas_registrar_transacao();
+
+CREATE INDEX idx_contas_transacao_id ON contas (transacao, id);
+
+-- Registro das contas removidas, devolvido pela sincronização para que as cópias também as removam.
+-- O gatilho é por comando na tabela particionada: não dispara nas movimentações entre partições
+CREATE TABLE contas_removidas (
+    transacao xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    id BIGINT NOT NULL,
+    removida_em TIMESTAMP NOT NULL DEFAULT now(),
+    CONSTRAINT contas_removidas_pkey PRIMARY KEY (transacao, id)
+);
+
+CREATE FUNCTION contas_registrar_remocoes() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO contas_removidas (id) SELECT id FROM antigas;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER contas_removidas_delete AFTER DELETE ON contas
+    REFERENCING OLD TABLE AS antigas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_registrar_remocoes();
@@ -0,0 +1,84 @@
+-- Localização de cada conta: a data de vencimento (chave de particionamento) pelo id. Com a chave primária
+-- (id, data_vencimento) a busca só pelo id consulta o índice de todas as partições; consultando antes esta tabela,
+-- a busca informa também o vencimento e o planejador lê uma única partição.
+-- A chave primária daqui também volta a garantir que o id é único em toda a tabela, e não só em cada partição.
+CREATE TABLE contas_localizacao (
+    id BIGINT NOT NULL,
+    data_vencimento DATE NOT NULL,
+    CONSTRAINT contas_localizacao_pkey PRIMARY KEY (id)
+);
+
+INSERT INTO contas_localizacao (id, data_vencimento)
+SELECT id, data_vencimento FROM contas;
+
+-- Mantida por gatilhos por comando (um comando por INSERT, COPY, UPDATE, DELETE ou TRUNCATE em contas). As movimentações
+-- entre partições feitas por contas_criar_particao atuam direto nas partições e não mudam o vencimento
+CREATE FUNCTION contas_localizacao_aplicar() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO contas_localizacao (id, data_vencimento)
+        SELECT id, data_vencimento FROM novas;
+    ELSIF TG_OP = 'TRUNCATE' THEN
+        TRUNCATE contas_localizacao;
+    ELSIF TG_OP = 'DELETE' THEN
+        DELETE FROM contas_localizacao l
+        USING antigas a
+        WHERE l.id = a.id;
+    ELSE
+        UPDATE contas_localizacao l
+        SET data_vencimento = n.data_vencimento
+        FROM novas n
+        WHERE l.id = n.id AND l.data_vencimento <> n.data_vencimento;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER contas_localizacao_insert AFTER INSERT ON contas
+    REFERENCING NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_localizacao_aplicar();
+
+CREATE TRIGGER contas_localizacao_update AFTER UPDATE ON contas
+    REFERENCING OLD TABLE AS antigas NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_localizacao_aplicar();
+
+CREATE TRIGGER contas_localizacao_delete AFTER DELETE ON contas
+    REFERENCING OLD TABLE AS antigas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_localizacao_aplicar();
+
+CREATE TRIGGER contas_localizacao_truncate AFTER TRUNCATE ON contas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_localizacao_aplicar();
+
+-- Arquivamento (V10): remove também a localização das contas das partições arquivadas, que saem de contas
+CREATE OR REPLACE FUNCTION contas_arquivar_particoes(meses_retencao INT) RETURNS INT AS $$
+DECLARE
+    limite DATE := (date_trunc('month', current_date) - make_interval(months => meses_retencao))::date;
+    particao RECORD;
+    inicio DATE;
+    em_aberto BOOLEAN;
+    arquivadas INT := 0;
+BEGIN
+    IF NOT pg_try_advisory_xact_lock(hashtext('contas_particoes')) THEN
+        RETURN 0;
+    END IF;
+    FOR particao IN
+        SELECT c.relname
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'contas'::regclass
+          AND c.relname ~ '^contas_p[0-9]{4}_[0-9]{2}$'
+          AND to_date(substring(c.relname FROM 9), 'YYYY_MM') < limite
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE situacao IN (1, 3))', particao.relname) INTO em_aberto;
+        IF NOT em_aberto THEN
+            inicio := to_date(substring(particao.relname FROM 9), 'YYYY_MM');
+            EXECUTE format('ALTER TABLE contas DETACH PARTITION %I', particao.relname);
+            EXECUTE format('ALTER TABLE %I SET SCHEMA contas_arquivo', particao.relname);
+            DELETE FROM contas_localizacao
+            WHERE data_vencimento >= inicio AND data_vencimento < (inicio + interval '1 month')::date;
+            arquivadas := arquivadas + 1;
+        END IF;
+    END LOOP;
+    RETURN arquivadas;
+END;
+$$ LANGUAGE plpgsql;
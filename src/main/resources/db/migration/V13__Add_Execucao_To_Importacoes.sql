@@ -0,0 +1,5 @@
+-- Início da execução corrente da importação (a primeira ou a retomada após uma parada) e o checkpoint de onde ela partiu;
+-- o ritmo e a estimativa de término consideram só o que foi importado desde então
+ALTER TABLE importacoes ADD COLUMN execucao_iniciada_em TIMESTAMP;
+ALTER TABLE importacoes ADD COLUMN execucao_byte_offset BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE importacoes ADD COLUMN execucao_linhas BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,27 @@
+-- Retenção de contas_removidas (V11): os registros só interessam aos clientes da sincronização que ainda não
+-- passaram por eles. Depois da retenção são apagados; um cursor mais antigo que ela pode não receber essas remoções
+CREATE INDEX idx_contas_removidas_removida_em ON contas_removidas (removida_em);
+
+-- Apaga os registros de remoção mais antigos que "dias_retencao" dias; chamada pelo agendamento da aplicação
+CREATE FUNCTION contas_expurgar_removidas(dias_retencao INT) RETURNS INT AS $$
+DECLARE
+    apagadas INT;
+BEGIN
+    DELETE FROM contas_removidas
+    WHERE removida_em < now() - make_interval(days => dias_retencao);
+    GET DIAGNOSTICS apagadas = ROW_COUNT;
+    RETURN apagadas;
+END;
+$$ LANGUAGE plpgsql;
+
+-- TRUNCATE não dispara o gatilho de DELETE: antes de esvaziar contas, registra a remoção de todas as contas
+-- para que a sincronização também as devolva como removidas
+CREATE FUNCTION contas_registrar_truncate() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO contas_removidas (id) SELECT id FROM contas;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER contas_removidas_truncate BEFORE TRUNCATE ON contas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_registrar_truncate();
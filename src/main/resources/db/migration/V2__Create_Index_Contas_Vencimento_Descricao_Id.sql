@@ -0,0 +1,2 @@
+-- Índice da ordenação da listagem; permite a paginação por cursor (seek) sem OFFSET
+CREATE INDEX idx_contas_vencimento_descricao_id ON contas (data_vencimento, descricao, id);
@@ -0,0 +1,6 @@
+-- Identificador gerado por sequence com otimizador pooled (allocationSize = 50 na entidade Conta),
+-- permitindo que o Hibernate agrupe os INSERTs em lotes JDBC.
+-- O DEFAULT nextval do SERIAL é mantido para cargas feitas diretamente em SQL.
+ALTER TABLE contas ALTER COLUMN id TYPE BIGINT;
+
+ALTER SEQUENCE contas_id_seq AS BIGINT INCREMENT BY 50;
@@ -0,0 +1,18 @@
+-- Importações assíncronas de CSV; byte_offset é o checkpoint gravado na mesma transação de cada bloco importado
+CREATE TABLE importacoes (
+                        id BIGSERIAL PRIMARY KEY,
+                        status VARCHAR(20) NOT NULL,
+                        nome_arquivo VARCHAR(255),
+                        arquivo VARCHAR(1024) NOT NULL,
+                        no_execucao VARCHAR(255) NOT NULL,
+                        bytes_total BIGINT NOT NULL,
+                        byte_offset BIGINT NOT NULL DEFAULT 0,
+                        linhas_processadas BIGINT NOT NULL DEFAULT 0,
+                        linhas_rejeitadas BIGINT NOT NULL DEFAULT 0,
+                        erro TEXT,
+                        criado_em TIMESTAMP NOT NULL,
+                        iniciado_em TIMESTAMP,
+                        concluido_em TIMESTAMP
+);
+
+CREATE INDEX idx_importacoes_status ON importacoes (status);
@@ -0,0 +1,5 @@
+-- Modo de importação que ignora linhas inválidas e as registra em um arquivo de rejeições;
+-- rejeicoes_offset é o tamanho do arquivo no último checkpoint, usado para truncá-lo na retomada
+ALTER TABLE importacoes ADD COLUMN ignorar_invalidas BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE importacoes ADD COLUMN arquivo_rejeicoes VARCHAR(1024);
+ALTER TABLE importacoes ADD COLUMN rejeicoes_offset BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Índice de trigramas para a busca por trecho da descrição (ILIKE '%termo%') e para a busca por relevância
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_contas_descricao_trgm ON contas USING gin (descricao gin_trgm_ops);
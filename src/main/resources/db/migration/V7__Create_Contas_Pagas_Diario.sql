@@ -0,0 +1,85 @@
+-- Totais pagos por dia, mantidos pelos gatilhos de contas: a soma de um período lê no máximo um registro por dia
+CREATE TABLE contas_pagas_diario (
+    data_pagamento DATE PRIMARY KEY,
+    valor_total NUMERIC(19, 2) NOT NULL,
+    quantidade BIGINT NOT NULL
+);
+
+-- Aplica a diferença do comando inteiro (gatilhos por comando com tabelas de transição), inclusive em COPY
+-- e em UPDATE de várias linhas, com um único upsert por dia afetado
+CREATE FUNCTION contas_pagas_diario_aplicar() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO contas_pagas_diario (data_pagamento, valor_total, quantidade)
+        SELECT data_pagamento, SUM(valor), COUNT(*)
+        FROM novas WHERE data_pagamento IS NOT NULL
+        GROUP BY data_pagamento
+        ON CONFLICT (data_pagamento) DO UPDATE
+            SET valor_total = contas_pagas_diario.valor_total + EXCLUDED.valor_total,
+                quantidade = contas_pagas_diario.quantidade + EXCLUDED.quantidade;
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE contas_pagas_diario d
+        SET valor_total = d.valor_total - a.valor_total,
+            quantidade = d.quantidade - a.quantidade
+        FROM (SELECT data_pagamento, SUM(valor) AS valor_total, COUNT(*) AS quantidade
+              FROM antigas WHERE data_pagamento IS NOT NULL
+              GROUP BY data_pagamento) a
+        WHERE d.data_pagamento = a.data_pagamento;
+    ELSE
+        -- Linhas cujo pagamento não mudou se anulam e não tocam a tabela de totais
+        INSERT INTO contas_pagas_diario (data_pagamento, valor_total, quantidade)
+        SELECT data_pagamento, SUM(valor), SUM(quantidade)
+        FROM (SELECT data_pagamento, valor, 1 AS quantidade FROM novas WHERE data_pagamento IS NOT NULL
+              UNION ALL
+              SELECT data_pagamento, -valor, -1 FROM antigas WHERE data_pagamento IS NOT NULL) delta
+        GROUP BY data_pagamento
+        HAVING SUM(valor) <> 0 OR SUM(quantidade) <> 0
+        ON CONFLICT (data_pagamento) DO UPDATE
+            SET valor_total = contas_pagas_diario.valor_total + EXCLUDED.valor_total,
+                quantidade = contas_pagas_diario.quantidade + EXCLUDED.quantidade;
+    END IF;
+
+    DELETE FROM contas_pagas_diario WHERE quantidade = 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION contas_pagas_diario_truncar() RETURNS trigger AS $$
+BEGIN
+    TRUNCATE contas_pagas_diario;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER contas_pagas_diario_insert AFTER INSERT ON contas
+    REFERENCING NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagas_diario_aplicar();
+
+CREATE TRIGGER contas_pagas_diario_update AFTER UPDATE ON contas
+    REFERENCING OLD TABLE AS antigas NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagas_diario_aplicar();
+
+CREATE TRIGGER contas_pagas_diario_delete AFTER DELETE ON contas
+    REFERENCING OLD TABLE AS antigas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagas_diario_aplicar();
+
+CREATE TRIGGER contas_pagas_diario_truncate AFTER TRUNCATE ON contas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagas_diario_truncar();
+
+-- Recalcula os totais a partir de contas; bloqueia escritas em contas (leituras seguem liberadas) até o fim da transação
+CREATE FUNCTION contas_pagas_diario_reconstruir() RETURNS BIGINT AS $$
+DECLARE
+    dias BIGINT;
+BEGIN
+    LOCK TABLE contas IN SHARE ROW EXCLUSIVE MODE;
+    DELETE FROM contas_pagas_diario;
+    INSERT INTO contas_pagas_diario (data_pagamento, valor_total, quantidade)
+    SELECT data_pagamento, SUM(valor), COUNT(*)
+    FROM contas WHERE data_pagamento IS NOT NULL
+    GROUP BY data_pagamento;
+    GET DIAGNOSTICS dias = ROW_COUNT;
+    RETURN dias;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT contas_pagas_diario_reconstruir();
@@ -0,0 +1,2 @@
+-- Versão da conta (bloqueio otimista do Hibernate), usada também como ETag das respostas
+ALTER TABLE contas ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
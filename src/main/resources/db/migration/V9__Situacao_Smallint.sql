@@ -0,0 +1,25 @@
+-- situacao passa de texto livre para o código de SituacaoConta:
+-- 1 = PENDENTE, 2 = PAGA, 3 = VENCIDA, 4 = CANCELADA
+-- Textos não reconhecidos viram PAGA quando há data de pagamento e PENDENTE caso contrário
+ALTER TABLE contas ALTER COLUMN situacao TYPE SMALLINT USING (
+    CASE upper(translate(trim(situacao), 'áàãâéêíóôõúçÁÀÃÂÉÊÍÓÔÕÚÇ', 'aaaaeeioooucAAAAEEIOOOUC'))
+        WHEN 'PENDENTE' THEN 1
+        WHEN 'EM ABERTO' THEN 1
+        WHEN 'ABERTA' THEN 1
+        WHEN 'ABERTO' THEN 1
+        WHEN 'PAGA' THEN 2
+        WHEN 'PAGO' THEN 2
+        WHEN 'VENCIDA' THEN 3
+        WHEN 'VENCIDO' THEN 3
+        WHEN 'ATRASADA' THEN 3
+        WHEN 'ATRASADO' THEN 3
+        WHEN 'CANCELADA' THEN 4
+        WHEN 'CANCELADO' THEN 4
+        ELSE CASE WHEN data_pagamento IS NOT NULL THEN 2 ELSE 1 END
+    END);
+
+ALTER TABLE contas ADD CONSTRAINT contas_situacao_check CHECK (situacao BETWEEN 1 AND 4);
+
+-- Índices só com as contas em aberto e vencidas, na ordem da listagem: "o que vence até X" lê apenas essas linhas
+CREATE INDEX idx_contas_pendentes_vencimento ON contas (data_vencimento, descricao, id) WHERE situacao = 1;
+CREATE INDEX idx_contas_vencidas_vencimento ON contas (data_vencimento, descricao, id) WHERE situacao = 3;
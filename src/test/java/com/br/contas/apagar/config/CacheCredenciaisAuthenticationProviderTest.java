@@ -0,0 +1,72 @@
+package com.br.contas.apagar.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheCredenciaisAuthenticationProviderTest {
+
+    private DaoAuthenticationProvider dao;
+    private CacheCredenciaisAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        UserDetailsService users = new InMemoryUserDetailsManager(
+                User.withUsername("admin").password(encoder.encode("admin")).roles("USER").build());
+        dao = spy(new DaoAuthenticationProvider());
+        dao.setPasswordEncoder(encoder);
+        dao.setUserDetailsService(users);
+        provider = new CacheCredenciaisAuthenticationProvider(dao, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void authenticate_SameCredentials_VerifiesPasswordOnce() {
+        Authentication primeira = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("admin", "admin"));
+        Authentication segunda = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("admin", "admin"));
+
+        assertTrue(primeira.isAuthenticated());
+        assertTrue(segunda.isAuthenticated());
+        assertEquals("admin", segunda.getName());
+        assertEquals(primeira.getAuthorities(), segunda.getAuthorities());
+        assertNotSame(primeira, segunda);
+        verify(dao, times(1)).authenticate(any());
+        assertEquals(1, provider.size());
+    }
+
+    @Test
+    void authenticate_WrongPassword_IsNotCached() {
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("admin", "admin"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("admin", "outra")));
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("admin", "outra")));
+        verify(dao, times(3)).authenticate(any());
+        assertEquals(1, provider.size());
+    }
+
+    @Test
+    void authenticate_UsesDetailsOfCurrentRequest() {
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("admin", "admin"));
+        UsernamePasswordAuthenticationToken requisicao = UsernamePasswordAuthenticationToken.unauthenticated("admin", "admin");
+        requisicao.setDetails("10.0.0.2");
+
+        Authentication resultado = provider.authenticate(requisicao);
+
+        assertEquals("10.0.0.2", resultado.getDetails());
+        assertNull(resultado.getCredentials());
+    }
+}
@@ -0,0 +1,61 @@
+package com.br.contas.apagar.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcorrenciaLimitadaDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void getConnection_LimitReached_TimesOut() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        ConcorrenciaLimitadaDataSource dataSource = new ConcorrenciaLimitadaDataSource(target, 1, Duration.ofMillis(50));
+
+        Connection primeira = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getConexoesEmUso());
+        primeira.close();
+    }
+
+    @Test
+    void close_ReleasesPermitOnlyOnce() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        ConcorrenciaLimitadaDataSource dataSource = new ConcorrenciaLimitadaDataSource(target, 2, Duration.ofMillis(50));
+
+        Connection primeira = dataSource.getConnection();
+        dataSource.getConnection();
+        primeira.close();
+        primeira.close();
+
+        assertEquals(1, dataSource.getConexoesEmUso());
+        verify(connection, times(2)).close();
+        assertEquals(primeira, primeira);
+    }
+
+    @Test
+    void getConnection_TargetFails_ReleasesPermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("indisponível"));
+        ConcorrenciaLimitadaDataSource dataSource = new ConcorrenciaLimitadaDataSource(target, 1, Duration.ofMillis(50));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.getConexoesEmUso());
+    }
+}
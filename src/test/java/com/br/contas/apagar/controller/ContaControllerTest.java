@@ -1,22 +1,41 @@
 package com.br.contas.apagar.controller;
 
 import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.domain.Importacao;
+import com.br.contas.apagar.domain.ImportacaoStatus;
+import com.br.contas.apagar.dto.ContaCursorPage;
+import com.br.contas.apagar.dto.ContaDto;
+import com.br.contas.apagar.dto.ContaVersao;
+import com.br.contas.apagar.dto.ImportacaoDto;
+import com.br.contas.apagar.dto.TotalPeriodo;
+import com.br.contas.apagar.service.ContaExportService;
 import com.br.contas.apagar.service.ContaService;
+import com.br.contas.apagar.service.ImportacaoService;
+import com.br.contas.apagar.util.ETags;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,8 +51,16 @@ public class ContaControllerTest {
     @Mock
     private ContaService contaService;
 
+    @Mock
+    private ImportacaoService importacaoService;
+
+    @Mock
+    private ContaExportService contaExportService;
+
     private Conta conta;
 
+    private ContaDto contaDto;
+
     @BeforeEach
     void setUp() {
         conta = new Conta();
@@ -41,7 +68,10 @@ public class ContaControllerTest {
         conta.setDataVencimento(LocalDate.now().plusDays(10));
         conta.setValor(new BigDecimal("100.00"));
         conta.setDescricao("Conta de teste");
-        conta.setSituacao("Pendente");
+        conta.setSituacao(SituacaoConta.PENDENTE);
+        conta.setVersion(3L);
+
+        contaDto = new ContaDto(1L, conta.getDataVencimento(), null, conta.getValor(), conta.getDescricao(), conta.getSituacao(), 3L);
     }
 
     @Test
@@ -60,7 +90,7 @@ public class ContaControllerTest {
         contaInvalida.setValor(BigDecimal.ZERO);
         contaInvalida.setDataVencimento(null);
         contaInvalida.setDescricao("");
-        contaInvalida.setSituacao("");
+        contaInvalida.setSituacao(null);
 
         doThrow(new IllegalArgumentException("Erro ao salvar conta")).when(contaService).save(any(Conta.class));
 
@@ -71,9 +101,9 @@ public class ContaControllerTest {
 
     @Test
     void testUpdateContaSuccess() {
-        when(contaService.update(eq(1L), any(Conta.class))).thenReturn(conta);
+        when(contaService.update(eq(1L), any(Conta.class), isNull())).thenReturn(conta);
 
-        ResponseEntity<Conta> response = contaController.update(1L, conta);
+        ResponseEntity<Conta> response = contaController.update(1L, conta, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(conta, response.getBody());
@@ -81,9 +111,9 @@ public class ContaControllerTest {
 
     @Test
     void testUpdateContaFailNotFound() {
-        when(contaService.update(eq(1L), any(Conta.class))).thenReturn(null);
+        when(contaService.update(eq(1L), any(Conta.class), isNull())).thenReturn(null);
 
-        ResponseEntity<Conta> response = contaController.update(1L, conta);
+        ResponseEntity<Conta> response = contaController.update(1L, conta, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
@@ -91,30 +121,121 @@ public class ContaControllerTest {
     @Test
     void testGetAllContas() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Conta> contaPage = mock(Page.class);
-        when(contaService.getAllWithFilters(any(), any(), any(), eq(pageable))).thenReturn(contaPage);
+        Page<ContaDto> contaPage = mock(Page.class);
+        when(contaService.getAllWithFilters(any(), any(), any(), any(), eq(pageable))).thenReturn(contaPage);
 
-        ResponseEntity<Page<Conta>> response = contaController.getAll(null, null, null, pageable);
+        ResponseEntity<Page<ContaDto>> response = contaController.getAll(null, null, null, null, null, pageable);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(contaPage, response.getBody());
     }
 
+    @Test
+    void testGetAllContasWithoutCount() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<ContaDto> contaSlice = mock(Slice.class);
+        when(contaService.getSliceWithFilters(any(), any(), any(), any(), eq(pageable))).thenReturn(contaSlice);
+
+        ResponseEntity<Slice<ContaDto>> response = contaController.getAllWithoutCount(null, null, null, null, pageable);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(contaSlice, response.getBody());
+        verify(contaService, never()).getAllWithFilters(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testExportUnsupportedFormat() {
+        ResponseEntity<StreamingResponseBody> response = contaController.export(null, null, null, null, "xml");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(contaExportService);
+    }
+
+    @Test
+    void testGetAllByCursorInvalidCursor() {
+        when(contaService.getPageAfterCursor(any(), any(), any(), any(), eq("invalido"), eq(20)))
+                .thenThrow(new IllegalArgumentException("Cursor inválido."));
+
+        ResponseEntity<ContaCursorPage> response = contaController.getAllByCursor(null, null, null, null, "invalido", 20);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testSearchByDescricaoInvalidLimit() {
+        when(contaService.searchByDescricao("energia", 0)).thenThrow(new IllegalArgumentException("O limite deve estar entre 1 e 100."));
+
+        ResponseEntity<List<ContaDto>> response = contaController.searchByDescricao("energia", 0);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void testGetByIdSuccess() {
-        when(contaService.getById(1L)).thenReturn(conta);
+        when(contaService.getById(1L)).thenReturn(contaDto);
 
-        ResponseEntity<Conta> response = contaController.getById(1L);
+        ResponseEntity<ContaDto> response = contaController.getById(1L, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(conta, response.getBody());
+        assertEquals(contaDto, response.getBody());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetByIdNotModified() {
+        when(contaService.getVersion(1L)).thenReturn(Optional.of(3L));
+
+        ResponseEntity<ContaDto> response = contaController.getById(1L, "\"3\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(contaService, never()).getById(any());
+    }
+
+    @Test
+    void testGetByIdModifiedSinceETag() {
+        when(contaService.getVersion(1L)).thenReturn(Optional.of(3L));
+        when(contaService.getById(1L)).thenReturn(contaDto);
+
+        ResponseEntity<ContaDto> response = contaController.getById(1L, "\"2\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(contaDto, response.getBody());
+    }
+
+    @Test
+    void testGetAllContasNotModified() {
+        Pageable pageable = PageRequest.of(0, 10);
+        List<ContaVersao> versoes = List.of(new ContaVersao(1L, 3L));
+        when(contaService.getVersionsWithFilters(any(), any(), any(), any(), eq(pageable))).thenReturn(new PageImpl<>(versoes, pageable, 1));
+
+        ResponseEntity<Page<ContaDto>> response = contaController.getAll(null, null, null, null, ETags.ofPage(1, versoes), pageable);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(contaService, never()).getAllWithFilters(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetAllContasModifiedReusesVersionsTotal() {
+        Pageable pageable = PageRequest.of(0, 10);
+        List<ContaVersao> versoes = List.of(new ContaVersao(1L, 4L));
+        when(contaService.getVersionsWithFilters(any(), any(), any(), any(), eq(pageable))).thenReturn(new PageImpl<>(versoes, pageable, 25));
+        when(contaService.getSliceWithFilters(any(), any(), any(), any(), eq(pageable)))
+                .thenReturn(new SliceImpl<>(List.of(contaDto), pageable, true));
+
+        ResponseEntity<Page<ContaDto>> response = contaController.getAll(null, null, null, null, "\"antiga\"", pageable);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(contaDto), response.getBody().getContent());
+        assertEquals(25, response.getBody().getTotalElements());
+        verify(contaService, never()).getAllWithFilters(any(), any(), any(), any(), any());
     }
 
     @Test
     void testGetByIdFailNotFound() {
         when(contaService.getById(1L)).thenReturn(null);
 
-        ResponseEntity<Conta> response = contaController.getById(1L);
+        ResponseEntity<ContaDto> response = contaController.getById(1L, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
@@ -139,11 +260,20 @@ public class ContaControllerTest {
         assertEquals(BigDecimal.ZERO, response.getBody());
     }
 
+    @Test
+    void testGetTotalPaidByMonth_InvalidDate() {
+        when(contaService.getTotalPaidByMonth("2024-01-01", "31/12/2024")).thenThrow(new IllegalArgumentException("Data inválida"));
+
+        ResponseEntity<List<TotalPeriodo>> response = contaController.getTotalPaidByMonth("2024-01-01", "31/12/2024");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void testUpdateSituacaoSuccess() {
-        when(contaService.updateSituacao(eq(1L), anyString())).thenReturn(conta);
+        when(contaService.updateSituacao(eq(1L), anyString(), isNull())).thenReturn(conta);
 
-        ResponseEntity<Conta> response = contaController.updateSituacao(1L, "Pago");
+        ResponseEntity<Conta> response = contaController.updateSituacao(1L, "Pago", null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(conta, response.getBody());
@@ -151,29 +281,73 @@ public class ContaControllerTest {
 
     @Test
     void testUpdateSituacaoFailNotFound() {
-        when(contaService.updateSituacao(eq(1L), anyString())).thenReturn(null);
+        when(contaService.updateSituacao(eq(1L), anyString(), isNull())).thenReturn(null);
 
-        ResponseEntity<Conta> response = contaController.updateSituacao(1L, "Pago");
+        ResponseEntity<Conta> response = contaController.updateSituacao(1L, "Pago", null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    void testUpdateSituacaoFailVersionConflict() {
+        when(contaService.updateSituacao(1L, "Pago", 2L))
+                .thenThrow(new OptimisticLockingFailureException("A conta 1 está na versão 3, não na versão 2."));
+
+        ResponseEntity<Conta> response = contaController.updateSituacao(1L, "Pago", "\"2\"");
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
     @Test
     void testImportCsvSuccess() throws Exception {
         MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "data".getBytes());
-        doNothing().when(contaService).importCsv(file);
+        Importacao importacao = new Importacao();
+        importacao.setId(7L);
+        importacao.setStatus(ImportacaoStatus.PENDENTE);
+        when(importacaoService.submit(file, false)).thenReturn(importacao);
 
-        ResponseEntity<String> response = contaController.importCsv(file);
+        ResponseEntity<?> response = contaController.importCsv(file, false);
 
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals("Contas importadas com sucesso.", response.getBody());
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/contas/importar/7", response.getHeaders().getLocation().toString());
+        assertEquals(7L, ((ImportacaoDto) response.getBody()).getId());
+    }
+
+    @Test
+    void testImportCsvQueueFull() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "data".getBytes());
+        when(importacaoService.submit(file, false)).thenThrow(new TaskRejectedException("fila cheia"));
+
+        ResponseEntity<?> response = contaController.importCsv(file, false);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    @Test
+    void testGetRejeicoesWithoutSkipMode() {
+        Importacao importacao = new Importacao();
+        importacao.setId(7L);
+        when(importacaoService.getById(7L)).thenReturn(Optional.of(importacao));
+
+        ResponseEntity<?> response = contaController.getRejeicoes(7L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testGetImportacaoNotFound() {
+        when(importacaoService.getById(7L)).thenReturn(Optional.empty());
+
+        ResponseEntity<ImportacaoDto> response = contaController.getImportacao(7L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
     void testImportCsvFail() {
         MultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", new byte[0]);
 
-        ResponseEntity<String> response = contaController.importCsv(file);
+        ResponseEntity<?> response = contaController.importCsv(file, false);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Arquivo CSV não fornecido ou vazio.", response.getBody());
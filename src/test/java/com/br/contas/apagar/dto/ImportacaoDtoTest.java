@@ -0,0 +1,61 @@
+package com.br.contas.apagar.dto;
+
+import com.br.contas.apagar.domain.Importacao;
+import com.br.contas.apagar.domain.ImportacaoStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+public class ImportacaoDtoTest {
+    private static final LocalDateTime AGORA = LocalDateTime.of(2024, 11, 20, 12, 0);
+
+    @Test
+    public void testOf_RateAndEtaFromFirstRun() {
+        Importacao importacao = emAndamento(AGORA.minusSeconds(10), 500, 500);
+        importacao.setExecucaoIniciadaEm(importacao.getIniciadoEm());
+
+        ImportacaoDto dto = ImportacaoDto.of(importacao, AGORA);
+
+        Assertions.assertEquals(50.0, dto.getLinhasPorSegundo());
+        Assertions.assertEquals(10L, dto.getEtaSegundos());
+    }
+
+    @Test
+    public void testOf_RateAndEtaFromResumeIgnoreDowntimeAndCheckpoint() {
+        // Parada de uma hora depois do checkpoint em 400 bytes / 200 linhas; retomada há 10 s
+        Importacao importacao = emAndamento(AGORA.minusHours(1), 600, 300);
+        importacao.setExecucaoIniciadaEm(AGORA.minusSeconds(10));
+        importacao.setExecucaoByteOffset(400);
+        importacao.setExecucaoLinhas(200);
+
+        ImportacaoDto dto = ImportacaoDto.of(importacao, AGORA);
+
+        Assertions.assertEquals(10.0, dto.getLinhasPorSegundo());
+        Assertions.assertEquals(20L, dto.getEtaSegundos());
+        Assertions.assertEquals(AGORA.minusHours(1), dto.getIniciadoEm());
+    }
+
+    @Test
+    public void testOf_NoEtaBeforeResumedRunReadsBytes() {
+        Importacao importacao = emAndamento(AGORA.minusHours(1), 400, 200);
+        importacao.setExecucaoIniciadaEm(AGORA.minusSeconds(1));
+        importacao.setExecucaoByteOffset(400);
+        importacao.setExecucaoLinhas(200);
+
+        ImportacaoDto dto = ImportacaoDto.of(importacao, AGORA);
+
+        Assertions.assertEquals(0.0, dto.getLinhasPorSegundo());
+        Assertions.assertNull(dto.getEtaSegundos());
+    }
+
+    private static Importacao emAndamento(LocalDateTime iniciadoEm, long byteOffset, long linhasProcessadas) {
+        Importacao importacao = new Importacao();
+        importacao.setStatus(ImportacaoStatus.EM_ANDAMENTO);
+        importacao.setBytesTotal(1000);
+        importacao.setByteOffset(byteOffset);
+        importacao.setLinhasProcessadas(linhasProcessadas);
+        importacao.setIniciadoEm(iniciadoEm);
+        return importacao;
+    }
+}
@@ -0,0 +1,309 @@
+package com.br.contas.apagar.repository;
+
+import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.dto.ContaAlteracao;
+import com.br.contas.apagar.dto.ContaAtualizada;
+import com.br.contas.apagar.dto.ContaDto;
+import com.br.contas.apagar.dto.CursorSincronizacao;
+import com.br.contas.apagar.dto.FaixaAtraso;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Consultas em SQL nativo, verificadas contra o banco; cada teste é desfeito ao final (rollback).
+// Os testes que precisam de outra transação gravam contas confirmadas, removidas depois do rollback
+@SpringBootTest
+@Transactional
+class ContaRepositoryImplTest {
+    private static final Pattern PARTICAO = Pattern.compile("on (contas_p\\d{4}_\\d{2}|contas_padrao) (contas_\\d+)");
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<Long> confirmadas = new ArrayList<>();
+
+    @Test
+    void testFindOverdueAging_ContaDueOnDataBaseIsNotOverdue() {
+        LocalDate dataBase = LocalDate.of(2031, 3, 15);
+        Map<String, Long> antes = quantidadePorFaixa(dataBase);
+
+        salvarPendente(dataBase);
+        salvarPendente(dataBase.minusDays(1));
+        salvarPendente(dataBase.minusDays(30));
+        salvarPendente(dataBase.minusDays(31));
+        contaRepository.flush();
+
+        Map<String, Long> depois = quantidadePorFaixa(dataBase);
+        assertEquals(List.of("1-30", "31-60", "61-90", "90+"), List.copyOf(depois.keySet()));
+        assertEquals(antes.get("1-30") + 2, depois.get("1-30"));
+        assertEquals(antes.get("31-60") + 1, depois.get("31-60"));
+        assertEquals(antes.get("61-90"), depois.get("61-90"));
+        assertEquals(antes.get("90+"), depois.get("90+"));
+    }
+
+    @Test
+    void testMarkOverdue_BumpsVersionAndUpdatesOnlyTheBatchPartition() {
+        // Partições de meses sem contas, que só existem nesta transação
+        criarParticao(LocalDate.of(1990, 3, 1));
+        criarParticao(LocalDate.of(1990, 4, 1));
+        Conta primeira = salvarPendente(LocalDate.of(1990, 3, 10));
+        Conta segunda = salvarPendente(LocalDate.of(1990, 3, 20));
+        Conta posterior = salvarPendente(LocalDate.of(1990, 4, 5));
+        contaRepository.flush();
+
+        assertEquals(1, contaRepository.markOverdue(LocalDate.of(1990, 3, 15), 10));
+        assertEquals(SituacaoConta.VENCIDA, situacao(primeira.getId()));
+        assertEquals(1L, versao(primeira.getId()));
+
+        // O UPDATE executado percorre só a partição das contas do lote (as demais aparecem como "never executed")
+        List<String> plano = explainAnalyze(LocalDate.of(1990, 4, 1), 10);
+        assertEquals(List.of("contas_p1990_03"), particoesAlteradas(plano));
+        assertEquals(SituacaoConta.VENCIDA, situacao(segunda.getId()));
+        assertEquals(1L, versao(segunda.getId()));
+        assertEquals(SituacaoConta.PENDENTE, situacao(posterior.getId()));
+        assertEquals(0L, versao(posterior.getId()));
+    }
+
+    @Test
+    void testMarkOverdue_SkipsContasLockedByAnotherTransaction() throws SQLException {
+        long bloqueada = inserirConfirmada(LocalDate.of(1990, 6, 10), SituacaoConta.PENDENTE);
+        long livre = inserirConfirmada(LocalDate.of(1990, 6, 11), SituacaoConta.PENDENTE);
+        // Sem o SKIP LOCKED a espera pela outra transação falharia aqui em vez de travar o teste
+        entityManager.createNativeQuery("SET LOCAL lock_timeout = '5s'").executeUpdate();
+
+        try (Connection outra = dataSource.getConnection()) {
+            outra.setAutoCommit(false);
+            try (Statement statement = outra.createStatement()) {
+                statement.execute("SELECT id FROM contas WHERE id = " + bloqueada + " FOR UPDATE");
+            }
+
+            assertEquals(1, contaRepository.markOverdue(LocalDate.of(1990, 7, 1), 10));
+            outra.rollback();
+        }
+
+        assertEquals(SituacaoConta.PENDENTE, situacao(bloqueada));
+        assertEquals(SituacaoConta.VENCIDA, situacao(livre));
+        assertEquals(1L, versao(livre));
+    }
+
+    @Test
+    void testUpdateById_StaleVersionLeavesContaUnchanged() {
+        Conta conta = salvarPendente(LocalDate.of(2031, 4, 10));
+        contaRepository.flush();
+
+        Optional<ContaAtualizada> atualizada = contaRepository.updateById(conta.getId(), 0L, Map.of("descricao", "Alterada"));
+        assertTrue(atualizada.isPresent());
+        assertEquals(1L, atualizada.get().getConta().getVersion());
+
+        // Outra requisição com a versão já superada: nada é alterado, e a conta continua existindo na versão atual,
+        // o que faz a API responder 409 em vez de 404
+        Optional<ContaAtualizada> conflito = contaRepository.updateById(conta.getId(), 0L, Map.of("descricao", "Concorrente"));
+        assertTrue(conflito.isEmpty());
+        assertEquals(Optional.of(1L), contaRepository.findVersionById(conta.getId()));
+        assertEquals("Alterada", contaRepository.findDtoById(conta.getId()).map(ContaDto::getDescricao).orElseThrow());
+
+        assertTrue(contaRepository.updateById(-1L, 0L, Map.of("descricao", "Inexistente")).isEmpty());
+        assertTrue(contaRepository.findVersionById(-1L).isEmpty());
+    }
+
+    @Test
+    void testFindChangesAfter_ReturnsFinishedChangesAndTombstonesOnly() throws SQLException {
+        long alterada = inserirConfirmada(LocalDate.of(2031, 5, 10), SituacaoConta.PENDENTE);
+        long removida = inserirConfirmada(LocalDate.of(2031, 5, 11), SituacaoConta.PENDENTE);
+        executarConfirmado("DELETE FROM contas WHERE id = " + removida);
+        CursorSincronizacao antes = new CursorSincronizacao(transacao(alterada) - 1, Long.MAX_VALUE);
+
+        Map<Long, ContaAlteracao> alteracoes = alteracoesPorId(antes);
+        assertFalse(alteracoes.get(alterada).isRemovida());
+        assertEquals(LocalDate.of(2031, 5, 10), alteracoes.get(alterada).getConta().getDataVencimento());
+        assertTrue(alteracoes.get(removida).isRemovida());
+        assertNull(alteracoes.get(removida).getConta());
+
+        // Uma conta gravada por uma transação ainda aberta (esta) fica de fora: o xmin do snapshot não passa dela
+        Conta aberta = salvarPendente(LocalDate.of(2031, 5, 12));
+        contaRepository.flush();
+        alteracoes = alteracoesPorId(antes);
+        assertFalse(alteracoes.containsKey(aberta.getId()));
+        assertTrue(alteracoes.containsKey(alterada));
+    }
+
+    @Test
+    void testContasPagasDiario_TriggersApplyEachStatementDelta() {
+        LocalDate dia10 = LocalDate.of(1991, 6, 10);
+        LocalDate dia11 = LocalDate.of(1991, 6, 11);
+        assertEquals(Map.of(), totaisDiarios(dia10, dia11));
+
+        Conta a = salvarPaga(LocalDate.of(1991, 6, 5), dia10, "100.00");
+        Conta b = salvarPaga(LocalDate.of(1991, 6, 5), dia10, "50.00");
+        salvarPendente(LocalDate.of(1991, 6, 5));
+        contaRepository.flush();
+        assertEquals(Map.of(dia10, "150.00/2"), totaisDiarios(dia10, dia11));
+
+        // O pagamento muda de dia e de valor: sai de um dia e entra no outro
+        contaRepository.updateById(a.getId(), 0L, Map.of("dataPagamento", dia11, "valor", new BigDecimal("120.00")));
+        assertEquals(Map.of(dia10, "50.00/1", dia11, "120.00/1"), totaisDiarios(dia10, dia11));
+
+        // Sem mudança no pagamento a diferença se anula
+        contaRepository.updateById(b.getId(), 0L, Map.of("descricao", "Sem efeito nos totais"));
+        assertEquals(Map.of(dia10, "50.00/1", dia11, "120.00/1"), totaisDiarios(dia10, dia11));
+
+        // O dia sem contas pagas deixa de existir na tabela
+        entityManager.createNativeQuery("DELETE FROM contas WHERE id = :id").setParameter("id", b.getId()).executeUpdate();
+        assertEquals(Map.of(dia11, "120.00/1"), totaisDiarios(dia10, dia11));
+    }
+
+    @AfterTransaction
+    void removerConfirmadas() throws SQLException {
+        if (confirmadas.isEmpty()) {
+            return;
+        }
+        String ids = confirmadas.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM contas WHERE id IN (" + ids + ")");
+            statement.execute("DELETE FROM contas_removidas WHERE id IN (" + ids + ")");
+        }
+        confirmadas.clear();
+    }
+
+    private long inserirConfirmada(LocalDate dataVencimento, SituacaoConta situacao) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("INSERT INTO contas (data_vencimento, valor, descricao, situacao)"
+                     + " VALUES (?, 10, 'Confirmada', ?) RETURNING id")) {
+            statement.setObject(1, dataVencimento);
+            statement.setShort(2, situacao.getCodigo());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                confirmadas.add(resultSet.getLong(1));
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private void executarConfirmado(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private long transacao(long id) {
+        return ((Number) entityManager.createNativeQuery("SELECT CAST(CAST(transacao AS text) AS bigint) FROM contas WHERE id = :id")
+                .setParameter("id", id)
+                .getSingleResult()).longValue();
+    }
+
+    // Totais de contas_pagas_diario no intervalo, como "valor/quantidade" por dia
+    @SuppressWarnings("unchecked")
+    private Map<LocalDate, String> totaisDiarios(LocalDate inicio, LocalDate fim) {
+        List<Object[]> linhas = entityManager.createNativeQuery("SELECT data_pagamento, valor_total, quantidade FROM contas_pagas_diario"
+                        + " WHERE data_pagamento BETWEEN CAST(:inicio AS date) AND CAST(:fim AS date)")
+                .setParameter("inicio", inicio)
+                .setParameter("fim", fim)
+                .getResultList();
+        return linhas.stream().collect(Collectors.toMap(linha -> ((Date) linha[0]).toLocalDate(),
+                linha -> linha[1] + "/" + linha[2]));
+    }
+
+    private Map<Long, ContaAlteracao> alteracoesPorId(CursorSincronizacao cursor) {
+        return contaRepository.findChangesAfter(cursor, 1000).stream()
+                .collect(Collectors.toMap(ContaAlteracao::getId, alteracao -> alteracao));
+    }
+
+    private void criarParticao(LocalDate mes) {
+        entityManager.createNativeQuery("SELECT contas_criar_particao(CAST(:mes AS date))")
+                .setParameter("mes", mes)
+                .getSingleResult();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> explainAnalyze(LocalDate dataBase, int limit) {
+        return entityManager.createNativeQuery("EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF, SUMMARY OFF) " + ContaRepositoryImpl.MARK_OVERDUE_SQL)
+                .setParameter("dataBase", dataBase)
+                .setParameter("limite", limit)
+                .getResultList();
+    }
+
+    // Partições alteradas pelo UPDATE que foram de fato lidas; os apelidos das partições do UPDATE vêm das linhas "Update on"
+    private static List<String> particoesAlteradas(List<String> plano) {
+        Map<String, String> alvos = new LinkedHashMap<>();
+        for (String linha : plano) {
+            Matcher matcher = PARTICAO.matcher(linha);
+            if (linha.trim().startsWith("Update on") && matcher.find()) {
+                alvos.put(matcher.group(2), matcher.group(1));
+            }
+        }
+        List<String> lidas = new ArrayList<>();
+        for (String linha : plano) {
+            Matcher matcher = PARTICAO.matcher(linha);
+            if (linha.contains("Scan") && !linha.contains("never executed") && matcher.find() && alvos.containsKey(matcher.group(2))) {
+                lidas.add(matcher.group(1));
+            }
+        }
+        return lidas;
+    }
+
+    private SituacaoConta situacao(long id) {
+        return contaRepository.findDtoById(id).map(ContaDto::getSituacao).orElseThrow();
+    }
+
+    private long versao(long id) {
+        return contaRepository.findVersionById(id).orElseThrow();
+    }
+
+    private Map<String, Long> quantidadePorFaixa(LocalDate dataBase) {
+        return contaRepository.findOverdueAging(dataBase).stream()
+                .collect(Collectors.toMap(FaixaAtraso::getFaixa, FaixaAtraso::getQuantidade,
+                        (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private Conta salvarPaga(LocalDate dataVencimento, LocalDate dataPagamento, String valor) {
+        Conta conta = new Conta();
+        conta.setDataVencimento(dataVencimento);
+        conta.setDataPagamento(dataPagamento);
+        conta.setValor(new BigDecimal(valor));
+        conta.setDescricao("Paga " + dataPagamento);
+        conta.setSituacao(SituacaoConta.PAGA);
+        return contaRepository.save(conta);
+    }
+
+    private Conta salvarPendente(LocalDate dataVencimento) {
+        Conta conta = new Conta();
+        conta.setDataVencimento(dataVencimento);
+        conta.setValor(BigDecimal.TEN);
+        conta.setDescricao("Aging " + dataVencimento);
+        conta.setSituacao(SituacaoConta.PENDENTE);
+        return contaRepository.save(conta);
+    }
+}
@@ -0,0 +1,58 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ContaCopyImporterTest {
+
+    @Test
+    void testAppendCsvRow_QuotesTextAndLeavesNullDateEmpty() {
+        Conta conta = new Conta();
+        conta.setId(51L);
+        conta.setDataVencimento(LocalDate.parse("2024-11-22"));
+        conta.setValor(new BigDecimal("1500.50"));
+        conta.setDescricao("Fornecedor \"ACME\", filial 2");
+        conta.setSituacao(SituacaoConta.PENDENTE);
+
+        StringBuilder rows = new StringBuilder();
+        ContaCopyImporter.appendCsvRow(rows, conta);
+
+        assertEquals("51,2024-11-22,,1500.50,\"Fornecedor \"\"ACME\"\", filial 2\",1\n", rows.toString());
+    }
+
+    @Test
+    void testReserveIds_FreshSequenceStartsAtOne() throws SQLException {
+        // Uma contas_id_seq recém-reiniciada (START 1, INCREMENT 50) devolve 1, 51, 101, ...
+        long[] nextval = {0};
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        int[] blocks = {0};
+        doAnswer(invocation -> blocks[0] = invocation.getArgument(1)).when(statement).setInt(eq(1), anyInt());
+        when(statement.executeQuery()).thenAnswer(invocation -> {
+            ResultSet resultSet = mock(ResultSet.class);
+            int[] remaining = {blocks[0]};
+            when(resultSet.next()).thenAnswer(next -> remaining[0]-- > 0);
+            when(resultSet.getLong(1)).thenAnswer(value -> nextval[0] == 0 ? (nextval[0] = 1) : (nextval[0] += Conta.ID_ALLOCATION_SIZE));
+            return resultSet;
+        });
+
+        long[] ids = ContaCopyImporter.reserveIds(connection, 60);
+
+        assertArrayEquals(LongStream.rangeClosed(1, 60).toArray(), ids);
+    }
+}
@@ -0,0 +1,77 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.repository.ContaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContaExportServiceTest {
+
+    @Mock
+    private ContaRepository contaRepository;
+
+    private ContaExportService contaExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        contaExportService = new ContaExportService(contaRepository, objectMapper);
+    }
+
+    @Test
+    void testExportCsv_SameLayoutAsImport() throws IOException {
+        when(contaRepository.streamByFilters(null, null, "energia", null))
+                .thenReturn(Stream.of(conta(1L, LocalDate.parse("2024-11-18")), conta(2L, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long linhas = contaExportService.exportCsv(null, null, "energia", null, out);
+
+        assertEquals(2, linhas);
+        assertEquals("\"2024-11-20\",\"2024-11-18\",\"150.00\",\"Energia, \"\"filial\"\"\",\"PAGA\"\n"
+                + "\"2024-11-20\",\"\",\"150.00\",\"Energia, \"\"filial\"\"\",\"PAGA\"\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExportNdjson_OneContaPerLine() throws IOException {
+        when(contaRepository.streamByFilters(null, null, null, null))
+                .thenReturn(Stream.of(conta(1L, LocalDate.parse("2024-11-18")), conta(2L, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        contaExportService.exportNdjson(null, null, null, null, out);
+
+        String[] linhas = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertTrue(linhas[0].startsWith("{\"id\":1,\"dataVencimento\":\"2024-11-20\",\"dataPagamento\":\"2024-11-18\""));
+        assertTrue(linhas[1].contains("\"dataPagamento\":null"));
+    }
+
+    private static Conta conta(Long id, LocalDate dataPagamento) {
+        Conta conta = new Conta();
+        conta.setId(id);
+        conta.setDataVencimento(LocalDate.parse("2024-11-20"));
+        conta.setDataPagamento(dataPagamento);
+        conta.setValor(new BigDecimal("150.00"));
+        conta.setDescricao("Energia, \"filial\"");
+        conta.setSituacao(SituacaoConta.PAGA);
+        conta.setVersion(0L);
+        return conta;
+    }
+}
@@ -0,0 +1,39 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.repository.ContaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContaParticaoServiceTest {
+
+    @Mock
+    private ContaRepository contaRepository;
+
+    @Test
+    void maintainPartitions_CreatesAheadAndArchivesOldPartitions() {
+        new ContaParticaoService(contaRepository, 12, true, 24).maintainPartitions();
+
+        verify(contaRepository).createPartitionsAhead(12);
+        verify(contaRepository).archivePartitions(24);
+    }
+
+    @Test
+    void maintainPartitions_ArchivalDisabled_OnlyCreatesPartitions() {
+        new ContaParticaoService(contaRepository, 3, false, 24).maintainPartitions();
+
+        verify(contaRepository).createPartitionsAhead(3);
+        verify(contaRepository, never()).archivePartitions(anyInt());
+    }
+
+    @Test
+    void constructor_InvalidRetention_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ContaParticaoService(contaRepository, 12, true, 0));
+    }
+}
@@ -0,0 +1,52 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.repository.ContaReativaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContaReativaServiceTest {
+
+    @Mock
+    private ContaReativaRepository contaReativaRepository;
+
+    @Test
+    void getTotalPaidByPeriod_ParsesDatesAndQueriesRepository() {
+        when(contaReativaRepository.getTotalPaidByPeriod(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))
+                .thenReturn(Mono.just(Optional.of(new BigDecimal("150.00"))));
+
+        Optional<BigDecimal> total = new ContaReativaService(contaReativaRepository)
+                .getTotalPaidByPeriod("01/01/2024", "31/01/2024").block();
+
+        assertEquals(Optional.of(new BigDecimal("150.00")), total);
+    }
+
+    @Test
+    void getTotalPaidByPeriod_InvalidDate_ErrorsWithoutQuerying() {
+        Mono<Optional<BigDecimal>> total = new ContaReativaService(contaReativaRepository)
+                .getTotalPaidByPeriod("2024-01-01", "31/01/2024");
+
+        assertThrows(IllegalArgumentException.class, total::block);
+        verify(contaReativaRepository, never()).getTotalPaidByPeriod(any(), any());
+    }
+
+    @Test
+    void getTotalPaidByPeriod_StartAfterEnd_Errors() {
+        Mono<Optional<BigDecimal>> total = new ContaReativaService(contaReativaRepository)
+                .getTotalPaidByPeriod("01/02/2024", "31/01/2024");
+
+        assertThrows(IllegalArgumentException.class, total::block);
+        verify(contaReativaRepository, never()).getTotalPaidByPeriod(any(), any());
+    }
+}
@@ -0,0 +1,29 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.repository.ContaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContaRemovidasServiceTest {
+
+    @Mock
+    private ContaRepository contaRepository;
+
+    @Test
+    void purgeRemoved_UsesConfiguredRetention() {
+        new ContaRemovidasService(contaRepository, 30).purgeRemoved();
+
+        verify(contaRepository).purgeRemovedBefore(30);
+    }
+
+    @Test
+    void constructor_InvalidRetention_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ContaRemovidasService(contaRepository, 0));
+    }
+}
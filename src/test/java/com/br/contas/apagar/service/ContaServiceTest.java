@@ -1,21 +1,45 @@
 package com.br.contas.apagar.service;
 
 import com.br.contas.apagar.domain.Conta;
+import com.br.contas.apagar.domain.SituacaoConta;
+import com.br.contas.apagar.domain.ContaPagaDiario;
+import com.br.contas.apagar.dto.AlteracaoSituacaoLote;
+import com.br.contas.apagar.dto.ContaAlteracao;
+import com.br.contas.apagar.dto.ContaAlterada;
+import com.br.contas.apagar.dto.ContaAtualizada;
+import com.br.contas.apagar.dto.ContaCursor;
+import com.br.contas.apagar.dto.ContaCursorPage;
+import com.br.contas.apagar.dto.ContaDto;
+import com.br.contas.apagar.dto.ContaRequest;
+import com.br.contas.apagar.dto.ContaSincronizacao;
+import com.br.contas.apagar.dto.CursorSincronizacao;
+import com.br.contas.apagar.dto.ImportReport;
+import com.br.contas.apagar.dto.LinhaRejeitada;
+import com.br.contas.apagar.dto.ResultadoLote;
+import com.br.contas.apagar.dto.TotalPeriodo;
 import com.br.contas.apagar.repository.ContaRepository;
 import com.opencsv.exceptions.CsvValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mock.web.MockMultipartFile;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -27,15 +51,19 @@ class ContaServiceTest {
     @Mock
     private ContaRepository contaRepository;
 
-    @InjectMocks
+    @Mock
+    private ContaCopyImporter copyImporter;
+
     private ContaService contaService;
 
-    @Mock
-    private MultipartFile file;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
-        // Inicializa os mocks (não é mais necessário devido ao uso do @ExtendWith)
+        // Importador JPA real sobre o repositório simulado; o COPY só é usado quando o mock indicar suporte
+        meterRegistry = new SimpleMeterRegistry();
+        contaService = new ContaService(contaRepository, copyImporter, new ContaJpaImporter(contaRepository),
+                new TotalPagoCache(100, Duration.ofMinutes(10)), meterRegistry);
     }
 
     @Test
@@ -44,7 +72,7 @@ class ContaServiceTest {
         conta.setDescricao("Conta 1");
         conta.setValor(new BigDecimal("100.00"));
         conta.setDataVencimento(LocalDate.now().plusDays(10));
-        conta.setSituacao("Pendente");
+        conta.setSituacao(SituacaoConta.PENDENTE);
 
         when(contaRepository.save(conta)).thenReturn(conta);
 
@@ -59,29 +87,28 @@ class ContaServiceTest {
     @Test
     void testImportCsv_Success() throws IOException, CsvValidationException {
         String csvContent = "2024-11-22,2024-11-22,100.00,Conta 1,Pendente\n2024-11-22,2024-11-22,150.00,Conta 2,Paga";
-        MultipartFile file = new MockMultipartFile("file", "contas.csv", "text/csv", csvContent.getBytes());
 
         Conta conta1 = new Conta();
         conta1.setDataVencimento(LocalDate.parse("2024-11-22"));
         conta1.setDataPagamento(LocalDate.parse("2024-11-18"));
         conta1.setValor(new BigDecimal("100.00"));
         conta1.setDescricao("Conta 1");
-        conta1.setSituacao("Pendente");
+        conta1.setSituacao(SituacaoConta.PENDENTE);
 
         Conta conta2 = new Conta();
         conta2.setDataVencimento(LocalDate.parse("2024-11-20"));
         conta2.setDataPagamento(LocalDate.parse("2024-11-12"));
         conta2.setValor(new BigDecimal("150.00"));
         conta2.setDescricao("Conta 2");
-        conta2.setSituacao("Paga");
+        conta2.setSituacao(SituacaoConta.PAGA);
 
         List<Conta> contas = Arrays.asList(conta1, conta2);
 
         ArgumentCaptor<List<Conta>> captor = ArgumentCaptor.forClass(List.class);
 
-        contaService.importCsv(file);
+        contaService.importCsv(new StringReader(csvContent), 1, null);
 
-        verify(contaRepository, times(1)).saveAll(captor.capture());
+        verify(contaRepository, times(1)).persistBatch(captor.capture());
 
         List<Conta> capturedContas = captor.getValue();
 
@@ -95,52 +122,223 @@ class ContaServiceTest {
         assertEquals(conta2.getValor(), capturedContas.get(1).getValor());
     }
 
+    @Test
+    void testImportCsv_PersistsInChunks() throws IOException {
+        StringBuilder csvContent = new StringBuilder();
+        int lines = ContaJpaImporter.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < lines; i++) {
+            csvContent.append("2024-11-22,2024-11-22,100.00,Conta ").append(i).append(",Pendente\n");
+        }
+        ArgumentCaptor<List<Conta>> captor = ArgumentCaptor.forClass(List.class);
+
+        ImportReport report = contaService.importCsv(new StringReader(csvContent.toString()), 1, null);
+
+        verify(contaRepository, times(3)).persistBatch(captor.capture());
+        verify(contaRepository, never()).saveAll(any());
+
+        List<List<Conta>> chunks = captor.getAllValues();
+        assertEquals(ContaJpaImporter.CHUNK_SIZE, chunks.get(0).size());
+        assertEquals(ContaJpaImporter.CHUNK_SIZE, chunks.get(1).size());
+        assertEquals(1, chunks.get(2).size());
+        assertEquals("jpa", report.getEngine());
+        assertEquals(lines, report.getImportedRows());
+    }
+
+    @Test
+    void testImportCsv_UsesCopyWhenSupported() throws IOException {
+        ImportReport copyReport = new ImportReport("copy", 1, 0, 5);
+
+        when(copyImporter.isSupported()).thenReturn(true);
+        when(copyImporter.importCsv(any(), any(), eq(1L), isNull())).thenReturn(copyReport);
+
+        ImportReport report = contaService.importCsv(new StringReader("2024-11-22,2024-11-22,100.00,Conta 1,Pendente"), 1, null);
+
+        assertEquals(copyReport, report);
+        verify(contaRepository, never()).persistBatch(any());
+    }
+
+    @Test
+    void testImportCsv_SkipsInvalidLinesWhenRejectionsAreCollected() throws IOException {
+        String csvContent = "2024-11-22,2024-11-22,100.00,Conta 1,Pendente\n2024-11-22,xx,150.00,Conta 2,Paga\n2024-11-22,2024-11-22,-1,Conta 3,Paga";
+        List<LinhaRejeitada> rejeitadas = new ArrayList<>();
+
+        ImportReport report = contaService.importCsv(new StringReader(csvContent), 10, rejeitadas::add);
+
+        assertEquals(1, report.getImportedRows());
+        assertEquals(2, report.getRejectedRows());
+        assertEquals(11, rejeitadas.get(0).getLinha());
+        assertEquals("2024-11-22,xx,150.00,Conta 2,Paga", rejeitadas.get(0).getConteudo());
+        assertEquals(12, rejeitadas.get(1).getLinha());
+        assertEquals("O campo 'Valor' é obrigatório e deve ser maior que zero.", rejeitadas.get(1).getMotivo());
+        verify(contaRepository, times(1)).persistBatch(argThat(contas -> contas.size() == 1));
+        assertEquals(1, meterRegistry.counter("contas.importacao.linhas", "motor", "jpa", "resultado", "importada").count());
+        assertEquals(2, meterRegistry.counter("contas.importacao.linhas", "motor", "jpa", "resultado", "rejeitada").count());
+    }
+
+    @Test
+    void testParseLine_BlankDataPagamentoMeansUnpaid() {
+        Conta conta = contaService.parseLine(new String[]{"2024-11-22", "", "100.00", "Conta 1", "Pendente"});
+
+        assertNull(conta.getDataPagamento());
+        assertEquals(LocalDate.parse("2024-11-22"), conta.getDataVencimento());
+    }
+
+    @Test
+    void testParseLine_MapsLegacySituacaoText() {
+        assertEquals(SituacaoConta.PAGA, contaService.parseLine(new String[]{"2024-11-22", "2024-11-22", "100.00", "Conta 1", "Pago"}).getSituacao());
+        assertEquals(SituacaoConta.VENCIDA, contaService.parseLine(new String[]{"2024-11-22", "", "100.00", "Conta 1", " vencida "}).getSituacao());
+        assertThrows(IllegalArgumentException.class,
+                () -> contaService.parseLine(new String[]{"2024-11-22", "", "100.00", "Conta 1", "Talvez"}));
+    }
+
     @Test
     void testImportCsv_InvalidFormat() throws IOException {
         String invalidCsvContent = "2024-11-01,2024-11-10,100.00,Conta 1";
-        MultipartFile file = new MockMultipartFile("file", "invalid.csv", "text/csv", invalidCsvContent.getBytes());
 
-        assertThrows(IllegalArgumentException.class, () -> contaService.importCsv(file));
+        assertThrows(IllegalArgumentException.class, () -> contaService.importCsv(new StringReader(invalidCsvContent), 1, null));
     }
 
     @Test
     void testUpdateConta() {
-        // Conta existente no banco de dados
-        Conta contaExistente = new Conta();
-        contaExistente.setId(1L);
-        contaExistente.setValor(new BigDecimal("50.00"));
-        contaExistente.setDescricao("Conta Existente");
-        contaExistente.setSituacao("PENDENTE");
-
         // Conta com os novos dados que queremos atualizar
         Conta contaAtualizada = new Conta();
         contaAtualizada.setValor(new BigDecimal("100.00"));
         contaAtualizada.setDescricao("Conta de Teste");
-        contaAtualizada.setSituacao("PENDENTE");
+        contaAtualizada.setSituacao(SituacaoConta.PENDENTE);
         contaAtualizada.setDataVencimento(LocalDate.parse("2024-11-17"));
         contaAtualizada.setDataPagamento(LocalDate.parse("2024-11-18"));
-
-        // Simulando o comportamento do repositório
-        when(contaRepository.findById(1L)).thenReturn(Optional.of(contaExistente));
-        when(contaRepository.save(any(Conta.class))).thenReturn(contaAtualizada);
-        Conta contaRetornada = contaService.update(1L, contaAtualizada);
+        contaAtualizada.setVersion(2L);
+
+        Conta contaGravada = new Conta();
+        contaGravada.setId(1L);
+        contaGravada.setValor(new BigDecimal("100.00"));
+        contaGravada.setDescricao("Conta de Teste");
+        contaGravada.setSituacao(SituacaoConta.PENDENTE);
+        contaGravada.setDataVencimento(LocalDate.parse("2024-11-17"));
+        contaGravada.setDataPagamento(LocalDate.parse("2024-11-18"));
+        contaGravada.setVersion(3L);
+
+        // Simulando o UPDATE condicional à versão enviada no corpo
+        when(contaRepository.updateById(eq(1L), eq(2L), anyMap()))
+                .thenReturn(Optional.of(new ContaAtualizada(contaGravada, null)));
+        Conta contaRetornada = contaService.update(1L, contaAtualizada, null);
 
         assertNotNull(contaRetornada);
-        assertEquals(new BigDecimal("100.00"), contaRetornada.getValor());
+        assertEquals(3L, contaRetornada.getVersion());
         assertEquals("Conta de Teste", contaRetornada.getDescricao());
-        assertEquals("PENDENTE", contaRetornada.getSituacao());
-        assertEquals(LocalDate.parse("2024-11-17"), contaRetornada.getDataVencimento());
-        assertEquals(LocalDate.parse("2024-11-18"), contaRetornada.getDataPagamento());
 
-        ArgumentCaptor<Conta> captor = ArgumentCaptor.forClass(Conta.class);
-        verify(contaRepository).save(captor.capture());
-        Conta contaSalva = captor.getValue();
+        ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(contaRepository).updateById(eq(1L), eq(2L), captor.capture());
+        Map<String, Object> valores = captor.getValue();
+
+        assertEquals(new BigDecimal("100.00"), valores.get("valor"));
+        assertEquals("Conta de Teste", valores.get("descricao"));
+        assertEquals(SituacaoConta.PENDENTE, valores.get("situacao"));
+        assertEquals(LocalDate.parse("2024-11-17"), valores.get("dataVencimento"));
+        assertEquals(LocalDate.parse("2024-11-18"), valores.get("dataPagamento"));
+        verify(contaRepository, never()).findById(any());
+        verify(contaRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdatePartial_SendsOnlyInformedFields() {
+        ContaRequest alteracoes = new ContaRequest();
+        alteracoes.setDataPagamento(LocalDate.parse("2024-11-18"));
+        alteracoes.setSituacao(SituacaoConta.PAGA);
+
+        Conta contaGravada = new Conta();
+        contaGravada.setId(1L);
+        contaGravada.setDataPagamento(LocalDate.parse("2024-11-18"));
+        contaGravada.setSituacao(SituacaoConta.PAGA);
+        contaGravada.setVersion(4L);
+        when(contaRepository.updateById(1L, 3L,
+                Map.of("dataPagamento", LocalDate.parse("2024-11-18"), "situacao", SituacaoConta.PAGA)))
+                .thenReturn(Optional.of(new ContaAtualizada(contaGravada, null)));
+
+        assertEquals(4L, contaService.updatePartial(1L, alteracoes, 3L).getVersion());
+        assertThrows(IllegalArgumentException.class, () -> contaService.updatePartial(1L, new ContaRequest(), 3L));
+    }
+
+    @Test
+    void testUpdateSituacao_VersionMismatchThrowsConflict() {
+        when(contaRepository.updateById(1L, 2L, Map.of("situacao", SituacaoConta.PAGA))).thenReturn(Optional.empty());
+        when(contaRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> contaService.updateSituacao(1L, "Paga", 2L));
+    }
+
+    @Test
+    void testUpdateSituacao_NotFoundReturnsNull() {
+        when(contaRepository.updateById(1L, null, Map.of("situacao", SituacaoConta.PAGA))).thenReturn(Optional.empty());
+        when(contaRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        assertNull(contaService.updateSituacao(1L, "Paga", null));
+    }
+
+    @Test
+    void testSaveAll_ReportsInvalidItemsAndPersistsTheRest() {
+        Conta valida = new Conta();
+        valida.setDescricao("Conta 1");
+        valida.setValor(new BigDecimal("100.00"));
+        valida.setDataVencimento(LocalDate.parse("2024-11-22"));
+        valida.setSituacao(SituacaoConta.PENDENTE);
+        Conta invalida = new Conta();
+        invalida.setDescricao("Conta 2");
+        invalida.setValor(BigDecimal.ZERO);
+        invalida.setDataVencimento(LocalDate.parse("2024-11-22"));
+        invalida.setSituacao(SituacaoConta.PENDENTE);
+        doAnswer(invocation -> {
+            List<Conta> contas = invocation.getArgument(0);
+            contas.forEach(conta -> conta.setId(51L));
+            return null;
+        }).when(contaRepository).persistBatch(any());
+
+        List<ResultadoLote> resultados = contaService.saveAll(List.of(invalida, valida));
+
+        assertEquals(ResultadoLote.Status.INVALIDA, resultados.get(0).getStatus());
+        assertEquals("O campo 'Valor' é obrigatório e deve ser maior que zero.", resultados.get(0).getErro());
+        assertEquals(ResultadoLote.Status.CRIADA, resultados.get(1).getStatus());
+        assertEquals(1, resultados.get(1).getIndice());
+        assertEquals(51L, resultados.get(1).getId());
+        verify(contaRepository, times(1)).persistBatch(argThat(contas -> contas.size() == 1));
+    }
+
+    @Test
+    void testGetAllByIds_KeepsRequestedOrderAndReportsMissing() {
+        Conta conta = new Conta();
+        conta.setId(2L);
+        when(contaRepository.findAllLocalizadasById(List.of(1L, 2L))).thenReturn(List.of(conta));
+
+        List<ResultadoLote> resultados = contaService.getAllByIds(List.of(1L, 2L));
+
+        assertEquals(ResultadoLote.Status.NAO_ENCONTRADA, resultados.get(0).getStatus());
+        assertEquals(ResultadoLote.Status.ENCONTRADA, resultados.get(1).getStatus());
+        assertEquals(conta, resultados.get(1).getConta());
+    }
+
+    @Test
+    void testUpdateSituacaoInBulk_ByIds() {
+        AlteracaoSituacaoLote alteracao = new AlteracaoSituacaoLote();
+        alteracao.setIds(List.of(1L, 2L));
+        alteracao.setSituacao(SituacaoConta.PAGA);
+        alteracao.setDataPagamento(LocalDate.parse("2024-11-30"));
+        when(contaRepository.updateSituacaoByIds(List.of(1L, 2L), SituacaoConta.PAGA, LocalDate.parse("2024-11-30")))
+                .thenReturn(List.of(new ContaAlterada(1L, null, LocalDate.parse("2024-11-30"))));
+
+        List<ResultadoLote> resultados = contaService.updateSituacaoInBulk(alteracao);
+
+        assertEquals(ResultadoLote.Status.ATUALIZADA, resultados.get(0).getStatus());
+        assertEquals(ResultadoLote.Status.NAO_ENCONTRADA, resultados.get(1).getStatus());
+        verify(contaRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateSituacaoInBulk_RequiresIdsOrFilter() {
+        AlteracaoSituacaoLote alteracao = new AlteracaoSituacaoLote();
+        alteracao.setSituacao(SituacaoConta.PAGA);
 
-        assertEquals(new BigDecimal("100.00"), contaSalva.getValor());
-        assertEquals("Conta de Teste", contaSalva.getDescricao());
-        assertEquals("PENDENTE", contaSalva.getSituacao());
-        assertEquals(LocalDate.parse("2024-11-17"), contaSalva.getDataVencimento());
-        assertEquals(LocalDate.parse("2024-11-18"), contaSalva.getDataPagamento());
+        assertThrows(IllegalArgumentException.class, () -> contaService.updateSituacaoInBulk(alteracao));
+        verifyNoInteractions(contaRepository);
     }
 
     @Test
@@ -155,11 +353,227 @@ class ContaServiceTest {
         assertEquals(new BigDecimal("250.00"), total);
     }
 
+    @Test
+    void testGetTotalPaidByPeriod_CachedUntilPaymentInRangeChanges() {
+        Conta conta = new Conta();
+        conta.setDescricao("Conta 1");
+        conta.setValor(new BigDecimal("100.00"));
+        conta.setDataVencimento(LocalDate.parse("2024-12-10"));
+        conta.setDataPagamento(LocalDate.parse("2024-12-05"));
+        conta.setSituacao(SituacaoConta.PAGA);
+        when(contaRepository.save(conta)).thenReturn(conta);
+        when(contaRepository.getTotalPaidByPeriod(any(), any())).thenReturn(new BigDecimal("250.00"));
+
+        contaService.getTotalPaidByPeriod("01/11/2024", "30/11/2024");
+        contaService.getTotalPaidByPeriod("01/12/2024", "31/12/2024");
+        contaService.getTotalPaidByPeriod("01/11/2024", "30/11/2024");
+        contaService.getTotalPaidByPeriod("01/12/2024", "31/12/2024");
+        verify(contaRepository, times(2)).getTotalPaidByPeriod(any(), any());
+
+        // Só dezembro contém a data de pagamento gravada
+        contaService.save(conta);
+        contaService.getTotalPaidByPeriod("01/11/2024", "30/11/2024");
+        contaService.getTotalPaidByPeriod("01/12/2024", "31/12/2024");
+        verify(contaRepository, times(3)).getTotalPaidByPeriod(any(), any());
+        verify(contaRepository, times(2)).getTotalPaidByPeriod(LocalDate.parse("2024-12-01"), LocalDate.parse("2024-12-31"));
+    }
+
+    @Test
+    void testSave_IgnoresIdAndVersionFromBody() {
+        Conta conta = new Conta();
+        conta.setId(7L);
+        conta.setVersion(1L);
+        conta.setDescricao("Conta 1");
+        conta.setValor(new BigDecimal("100.00"));
+        conta.setDataVencimento(LocalDate.parse("2024-12-10"));
+        conta.setSituacao(SituacaoConta.PENDENTE);
+        when(contaRepository.save(conta)).thenReturn(conta);
+
+        contaService.save(conta);
+
+        // Criada como conta nova, sem consultar a conta 7
+        assertNull(conta.getId());
+        assertNull(conta.getVersion());
+        verify(contaRepository, never()).findDtoById(any());
+    }
+
+    @Test
+    void testGetTotalPaidByMonth() {
+        when(contaRepository.findDailyTotalsPaid(LocalDate.parse("2024-01-15"), LocalDate.parse("2024-03-10")))
+                .thenReturn(List.of(diario("2024-01-20", "100.00", 2), diario("2024-01-31", "50.00", 1),
+                        diario("2024-03-10", "30.00", 1)));
+
+        List<TotalPeriodo> totais = contaService.getTotalPaidByMonth("15/01/2024", "10/03/2024");
+
+        assertEquals(3, totais.size());
+        assertEquals(new TotalPeriodo(LocalDate.parse("2024-01-15"), LocalDate.parse("2024-01-31"), new BigDecimal("150.00"), 3), totais.get(0));
+        assertEquals(new TotalPeriodo(LocalDate.parse("2024-02-01"), LocalDate.parse("2024-02-29"), BigDecimal.ZERO, 0), totais.get(1));
+        assertEquals(new TotalPeriodo(LocalDate.parse("2024-03-01"), LocalDate.parse("2024-03-10"), new BigDecimal("30.00"), 1), totais.get(2));
+    }
+
+    @Test
+    void testGetOverdueAging_DefaultsToToday() {
+        contaService.getOverdueAging(null);
+
+        verify(contaRepository).findOverdueAging(LocalDate.now());
+    }
+
+    @Test
+    void testGetProjectedOutflow_Weekly() {
+        contaService.getProjectedOutflow("01/01/2025", 90, "semana");
+
+        verify(contaRepository).findProjectedOutflow(LocalDate.parse("2025-01-01"), LocalDate.parse("2025-03-31"), 7);
+    }
+
+    @Test
+    void testGetProjectedOutflow_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> contaService.getProjectedOutflow(null, 90, "mes"));
+        assertThrows(IllegalArgumentException.class, () -> contaService.getProjectedOutflow(null, 0, "dia"));
+        assertThrows(IllegalArgumentException.class, () -> contaService.getProjectedOutflow("2025-01-01", 90, "dia"));
+        verifyNoInteractions(contaRepository);
+    }
+
+    @Test
+    void testGetTotalPaidByPeriods_ReadsDailyTotalsOnce() {
+        when(contaRepository.findDailyTotalsPaid(LocalDate.parse("2024-01-01"), LocalDate.parse("2024-12-31")))
+                .thenReturn(List.of(diario("2024-01-05", "10.00", 1), diario("2024-12-31", "20.00", 2)));
+
+        List<TotalPeriodo> totais = contaService.getTotalPaidByPeriods(
+                List.of("01/12/2024", "01/01/2024"), List.of("31/12/2024", "31/12/2024"));
+
+        assertEquals(new BigDecimal("20.00"), totais.get(0).getTotal());
+        assertEquals(new BigDecimal("30.00"), totais.get(1).getTotal());
+        assertEquals(3, totais.get(1).getQuantidade());
+        verify(contaRepository, times(1)).findDailyTotalsPaid(any(), any());
+    }
+
+    @Test
+    void testGetTotalPaidByPeriods_UnpairedDates() {
+        assertThrows(IllegalArgumentException.class,
+                () -> contaService.getTotalPaidByPeriods(List.of("01/01/2024", "01/02/2024"), List.of("31/01/2024")));
+        verify(contaRepository, never()).findDailyTotalsPaid(any(), any());
+    }
+
+    private static ContaPagaDiario diario(String data, String valor, long quantidade) {
+        ContaPagaDiario diario = new ContaPagaDiario();
+        diario.setDataPagamento(LocalDate.parse(data));
+        diario.setValorTotal(new BigDecimal(valor));
+        diario.setQuantidade(quantidade);
+        return diario;
+    }
+
+    @Test
+    void testGetSliceWithFilters() {
+        Pageable pageable = PageRequest.of(0, 1);
+        ContaDto conta = new ContaDto();
+        conta.setDescricao("Conta 1");
+        Slice<ContaDto> slice = new SliceImpl<>(List.of(conta), pageable, true);
+
+        when(contaRepository.findSliceByFilters(null, null, "conta", SituacaoConta.PENDENTE, pageable)).thenReturn(slice);
+
+        Slice<ContaDto> result = contaService.getSliceWithFilters(null, null, "conta", SituacaoConta.PENDENTE, pageable);
+
+        assertTrue(result.hasNext());
+        assertEquals(1, result.getNumberOfElements());
+        verify(contaRepository, never()).findByFilters(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetPageAfterCursor() {
+        ContaDto conta1 = new ContaDto(1L, LocalDate.parse("2024-11-01"), null, new BigDecimal("100.00"), "Conta|1",
+                SituacaoConta.PENDENTE, 0L);
+        ContaDto conta2 = new ContaDto(2L, LocalDate.parse("2024-11-02"), null, new BigDecimal("50.00"), "Conta 2",
+                SituacaoConta.PENDENTE, 0L);
+
+        when(contaRepository.findByFiltersAfter(null, null, null, null, null, 2)).thenReturn(List.of(conta1, conta2));
+
+        ContaCursorPage page = contaService.getPageAfterCursor(null, null, null, null, null, 1);
+
+        assertEquals(1, page.getContent().size());
+        assertNotNull(page.getNextCursor());
+
+        ArgumentCaptor<ContaCursor> captor = ArgumentCaptor.forClass(ContaCursor.class);
+        when(contaRepository.findByFiltersAfter(any(), any(), any(), any(), captor.capture(), eq(2))).thenReturn(List.of(conta2));
+
+        ContaCursorPage lastPage = contaService.getPageAfterCursor(null, null, null, null, page.getNextCursor(), 1);
+
+        assertEquals(new ContaCursor(LocalDate.parse("2024-11-01"), "Conta|1", 1L), captor.getValue());
+        assertEquals(1, lastPage.getContent().size());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void testGetPageAfterCursor_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> contaService.getPageAfterCursor(null, null, null, null, "???", 10));
+    }
+
+    @Test
+    void testGetChangesAfter() {
+        ContaDto conta = new ContaDto(1L, LocalDate.parse("2024-11-01"), null, new BigDecimal("100.00"), "Conta 1",
+                SituacaoConta.PENDENTE, 0L);
+        ContaAlteracao alterada = new ContaAlteracao(10L, 1L, false, conta);
+        ContaAlteracao removida = new ContaAlteracao(12L, 2L, true, null);
+
+        when(contaRepository.findChangesAfter(CursorSincronizacao.INICIO, 2)).thenReturn(List.of(alterada, removida));
+
+        ContaSincronizacao lote = contaService.getChangesAfter(null, 1);
+
+        assertEquals(List.of(alterada), lote.getAlteracoes());
+        assertTrue(lote.isTemMais());
+
+        when(contaRepository.findChangesAfter(new CursorSincronizacao(10L, 1L), 2)).thenReturn(List.of(removida));
+
+        ContaSincronizacao ultimoLote = contaService.getChangesAfter(lote.getCursor(), 1);
+
+        assertEquals(List.of(removida), ultimoLote.getAlteracoes());
+        assertFalse(ultimoLote.isTemMais());
+        assertEquals(new CursorSincronizacao(12L, 2L), CursorSincronizacao.decode(ultimoLote.getCursor()));
+    }
+
+    @Test
+    void testGetChangesAfter_NoChangesKeepsCursor() {
+        String cursor = new CursorSincronizacao(12L, 2L).encode();
+        when(contaRepository.findChangesAfter(new CursorSincronizacao(12L, 2L), 101)).thenReturn(List.of());
+
+        ContaSincronizacao lote = contaService.getChangesAfter(cursor, 100);
+
+        assertTrue(lote.getAlteracoes().isEmpty());
+        assertEquals(cursor, lote.getCursor());
+        assertThrows(IllegalArgumentException.class, () -> contaService.getChangesAfter("???", 100));
+    }
+
+    @Test
+    void testSearchByDescricao() {
+        ContaDto conta = new ContaDto(1L, LocalDate.parse("2024-11-01"), null, new BigDecimal("100.00"), "Energia Elétrica",
+                SituacaoConta.PENDENTE, 0L);
+        when(contaRepository.searchByDescricaoRelevance("energia", 10)).thenReturn(List.of(conta));
+
+        List<ContaDto> result = contaService.searchByDescricao("  energia ", 10);
+
+        assertEquals(List.of(conta), result);
+    }
+
+    @Test
+    void testSearchByDescricao_BlankTerm() {
+        assertThrows(IllegalArgumentException.class, () -> contaService.searchByDescricao(" ", 10));
+        verify(contaRepository, never()).searchByDescricaoRelevance(any(), anyInt());
+    }
+
+    @Test
+    void testGetById_ReturnsProjection() {
+        ContaDto conta = new ContaDto(1L, LocalDate.parse("2024-11-10"), null, new BigDecimal("100.00"), "Conta 1", SituacaoConta.PENDENTE, 2L);
+        when(contaRepository.findDtoById(1L)).thenReturn(java.util.Optional.of(conta));
+
+        assertEquals(conta, contaService.getById(1L));
+        verify(contaRepository, never()).findById(any());
+    }
+
     @Test
     void testGetById_ContaNotFound() {
         Long id = 1L;
 
-        when(contaRepository.findById(id)).thenReturn(java.util.Optional.empty());
+        when(contaRepository.findDtoById(id)).thenReturn(java.util.Optional.empty());
 
         RuntimeException thrown = assertThrows(RuntimeException.class, () -> contaService.getById(id));
 
@@ -0,0 +1,52 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.repository.ContaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContaVencimentoServiceTest {
+
+    @Mock
+    private ContaRepository contaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void markOverdue_RunsBatchesUntilOneIsNotFull() {
+        when(contaRepository.markOverdue(LocalDate.now(), 100)).thenReturn(100, 100, 7);
+
+        new ContaVencimentoService(contaRepository, transactionManager, meterRegistry, true, 100).markOverdue();
+
+        verify(contaRepository, times(3)).markOverdue(LocalDate.now(), 100);
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(207, meterRegistry.counter("contas.vencimento.marcadas").count());
+    }
+
+    @Test
+    void markOverdue_Disabled_DoesNothing() {
+        new ContaVencimentoService(contaRepository, transactionManager, meterRegistry, false, 100).markOverdue();
+
+        verify(contaRepository, never()).markOverdue(any(), anyInt());
+    }
+
+    @Test
+    void constructor_InvalidBatchSize_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ContaVencimentoService(contaRepository, transactionManager, meterRegistry, true, 0));
+    }
+}
@@ -0,0 +1,140 @@
+package com.br.contas.apagar.service;
+
+import com.br.contas.apagar.domain.Importacao;
+import com.br.contas.apagar.domain.ImportacaoStatus;
+import com.br.contas.apagar.dto.ImportReport;
+import com.br.contas.apagar.dto.LinhaRejeitada;
+import com.br.contas.apagar.repository.ImportacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacaoServiceTest {
+
+    @Mock
+    private ImportacaoRepository importacaoRepository;
+
+    @Mock
+    private ContaService contaService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path spoolDir;
+
+    private ImportacaoService importacaoService;
+
+    private Importacao importacao;
+
+    @BeforeEach
+    void setUp() {
+        importacaoService = new ImportacaoService(importacaoRepository, contaService, transactionManager,
+                new SyncTaskExecutor(), spoolDir.toString(), 2, "no-teste");
+
+        importacao = new Importacao();
+        importacao.setId(1L);
+        importacao.setStatus(ImportacaoStatus.PENDENTE);
+        when(importacaoRepository.findById(1L)).thenReturn(Optional.of(importacao));
+        when(importacaoRepository.save(any(Importacao.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testRun_CheckpointsEachSegment() throws IOException {
+        Path arquivo = spoolDir.resolve("contas.csv");
+        Files.writeString(arquivo, "a\nb\nc\n");
+        importacao.setArquivo(arquivo.toString());
+        when(contaService.importCsv(any(Reader.class), anyLong(), any()))
+                .thenReturn(new ImportReport("copy", 2, 0, 1))
+                .thenReturn(new ImportReport("copy", 1, 0, 1));
+
+        importacaoService.run(1L);
+
+        ArgumentCaptor<Long> offsets = ArgumentCaptor.forClass(Long.class);
+        verify(importacaoRepository, times(2)).saveCheckpoint(eq(1L), offsets.capture(), anyLong(), anyLong(), eq(0L));
+        assertEquals(4L, offsets.getAllValues().get(0));
+        assertEquals(6L, offsets.getAllValues().get(1));
+        assertEquals(ImportacaoStatus.CONCLUIDA, importacao.getStatus());
+        assertFalse(Files.exists(arquivo));
+    }
+
+    @Test
+    void testRun_ResumesFromCheckpoint() throws IOException {
+        Path arquivo = spoolDir.resolve("contas.csv");
+        Files.writeString(arquivo, "a\nb\nc\n");
+        importacao.setArquivo(arquivo.toString());
+        importacao.setStatus(ImportacaoStatus.EM_ANDAMENTO);
+        importacao.setByteOffset(4);
+        importacao.setLinhasProcessadas(2);
+        ArgumentCaptor<Reader> segment = ArgumentCaptor.forClass(Reader.class);
+        when(contaService.importCsv(segment.capture(), eq(3L), isNull())).thenReturn(new ImportReport("copy", 1, 0, 1));
+
+        importacaoService.run(1L);
+
+        assertEquals('c', segment.getValue().read());
+        verify(importacaoRepository).saveCheckpoint(1L, 6L, 1L, 0L, 0L);
+        assertEquals(4L, importacao.getExecucaoByteOffset());
+        assertEquals(2L, importacao.getExecucaoLinhas());
+        assertNotNull(importacao.getExecucaoIniciadaEm());
+    }
+
+    @Test
+    void testRun_WritesRejectionsAndCheckpointsTheirOffset() throws IOException {
+        Path arquivo = spoolDir.resolve("contas.csv");
+        Path rejeicoes = spoolDir.resolve("contas-rejeicoes.csv");
+        Files.writeString(arquivo, "a\nb\n");
+        importacao.setArquivo(arquivo.toString());
+        importacao.setIgnorarInvalidas(true);
+        importacao.setArquivoRejeicoes(rejeicoes.toString());
+        when(contaService.importCsv(any(Reader.class), eq(1L), notNull())).thenAnswer(invocation -> {
+            Consumer<LinhaRejeitada> consumer = invocation.getArgument(2);
+            consumer.accept(new LinhaRejeitada(2, "b", "Formato de CSV inválido."));
+            return new ImportReport("copy", 1, 1, 1);
+        });
+
+        importacaoService.run(1L);
+
+        String conteudo = Files.readString(rejeicoes);
+        assertEquals("\"linha\",\"conteudo\",\"motivo\"\n\"2\",\"b\",\"Formato de CSV inválido.\"\n", conteudo);
+        verify(importacaoRepository).saveCheckpoint(1L, 4L, 1L, 1L, conteudo.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(ImportacaoStatus.CONCLUIDA, importacao.getStatus());
+    }
+
+    @Test
+    void testRun_FailureMarksImportacao() throws IOException {
+        Path arquivo = spoolDir.resolve("contas.csv");
+        Files.writeString(arquivo, "a\nb\nc\n");
+        importacao.setArquivo(arquivo.toString());
+        when(contaService.importCsv(any(Reader.class), anyLong(), any()))
+                .thenReturn(new ImportReport("copy", 2, 0, 1))
+                .thenThrow(new IllegalArgumentException("Linha 1: inválida"));
+
+        importacaoService.run(1L);
+
+        assertEquals(ImportacaoStatus.FALHOU, importacao.getStatus());
+        assertTrue(importacao.getErro().startsWith("Erro no bloco iniciado na linha 3"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.br.contas.apagar.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TotalPagoCacheTest {
+    private static final LocalDate INICIO = LocalDate.parse("2024-12-01");
+    private static final LocalDate FIM = LocalDate.parse("2024-12-31");
+
+    private final TotalPagoCache cache = new TotalPagoCache(100, Duration.ofMinutes(10));
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testGet_LoadOverlappingInvalidationIsNotCached() throws Exception {
+        CountDownLatch carregando = new CountDownLatch(1);
+        CountDownLatch invalidado = new CountDownLatch(1);
+
+        // A leitura calcula o total antigo e só termina depois que a gravação concorrente invalidou o período
+        Future<BigDecimal> leitura = executor.submit(() -> cache.get(INICIO, FIM, () -> {
+            carregando.countDown();
+            try {
+                assertTrue(invalidado.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return new BigDecimal("100.00");
+        }));
+        assertTrue(carregando.await(5, TimeUnit.SECONDS));
+        cache.invalidate(LocalDate.parse("2024-12-05"));
+        invalidado.countDown();
+
+        assertEquals(new BigDecimal("100.00"), leitura.get(5, TimeUnit.SECONDS));
+        assertEquals(new BigDecimal("250.00"), cache.get(INICIO, FIM, () -> new BigDecimal("250.00")));
+    }
+
+    @Test
+    void testGet_LoadWithoutInvalidationIsCached() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.get(INICIO, FIM, () -> BigDecimal.valueOf(cargas.incrementAndGet()));
+        cache.invalidate(LocalDate.parse("2024-11-30"));
+        BigDecimal total = cache.get(INICIO, FIM, () -> BigDecimal.valueOf(cargas.incrementAndGet()));
+
+        assertEquals(BigDecimal.ONE, total);
+        assertEquals(1, cargas.get());
+    }
+}
@@ -0,0 +1,36 @@
+package com.br.contas.apagar.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class CsvRecordReaderTest {
+
+    @Test
+    public void testReadRecord_TracksByteOffset() throws IOException {
+        byte[] csv = "a,1\nção,2\nc,3".getBytes(StandardCharsets.UTF_8);
+        CsvRecordReader reader = new CsvRecordReader(new ByteArrayInputStream(csv), 0);
+
+        Assertions.assertEquals("a,1\n", reader.readRecord());
+        Assertions.assertEquals(4, reader.getOffset());
+        Assertions.assertEquals("ção,2\n", reader.readRecord());
+        Assertions.assertEquals(12, reader.getOffset());
+        Assertions.assertEquals("c,3", reader.readRecord());
+        Assertions.assertEquals(csv.length, reader.getOffset());
+        Assertions.assertNull(reader.readRecord());
+    }
+
+    @Test
+    public void testReadRecord_KeepsQuotedLineBreak() throws IOException {
+        byte[] csv = "\"linha\nquebrada\",1\nb,2\n".getBytes(StandardCharsets.UTF_8);
+        CsvRecordReader reader = new CsvRecordReader(new ByteArrayInputStream(csv), 100);
+
+        Assertions.assertEquals("\"linha\nquebrada\",1\n", reader.readRecord());
+        Assertions.assertEquals(119, reader.getOffset());
+        Assertions.assertEquals("b,2\n", reader.readRecord());
+        Assertions.assertNull(reader.readRecord());
+    }
+}
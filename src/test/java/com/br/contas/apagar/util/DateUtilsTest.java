@@ -49,4 +49,14 @@ public class DateUtilsTest {
         boolean result = DateUtils.isDateInRange(date, startDate, endDate);
         Assertions.assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseDate_ValidDate() {
+        Assertions.assertEquals(LocalDate.of(2024, 11, 17), DateUtils.parseDate("17/11/2024"));
+    }
+
+    @Test
+    public void testParseDate_InvalidFormat() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DateUtils.parseDate("2024-11-17"));
+    }
+}
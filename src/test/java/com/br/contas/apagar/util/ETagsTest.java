@@ -0,0 +1,37 @@
+package com.br.contas.apagar.util;
+
+import com.br.contas.apagar.dto.ContaVersao;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ETagsTest {
+
+    @Test
+    public void testMatches_ListAndWeakPrefix() {
+        Assertions.assertTrue(ETags.matches("\"1\", W/\"3\"", ETags.of(3)));
+        Assertions.assertTrue(ETags.matches("*", ETags.of(3)));
+        Assertions.assertFalse(ETags.matches("\"2\"", ETags.of(3)));
+        Assertions.assertFalse(ETags.matches(null, ETags.of(3)));
+    }
+
+    @Test
+    public void testOfPage_ChangesWithVersionAndTotal() {
+        List<ContaVersao> page = List.of(new ContaVersao(1L, 0L), new ContaVersao(2L, 0L));
+        String etag = ETags.ofPage(10, page);
+
+        Assertions.assertEquals(etag, ETags.ofPage(10, List.of(new ContaVersao(1L, 0L), new ContaVersao(2L, 0L))));
+        Assertions.assertNotEquals(etag, ETags.ofPage(10, List.of(new ContaVersao(1L, 0L), new ContaVersao(2L, 1L))));
+        Assertions.assertNotEquals(etag, ETags.ofPage(11, page));
+    }
+
+    @Test
+    public void testParseVersion() {
+        Assertions.assertEquals(3L, ETags.parseVersion(ETags.of(3)));
+        Assertions.assertNull(ETags.parseVersion(null));
+        Assertions.assertNull(ETags.parseVersion("*"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ETags.parseVersion("W/\"3\""));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ETags.parseVersion("\"abc\""));
+    }
+}